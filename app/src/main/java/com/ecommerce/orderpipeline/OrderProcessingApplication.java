@@ -2,12 +2,12 @@ package com.ecommerce.orderpipeline;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
-@EnableRetry
+@EnableScheduling
 public class OrderProcessingApplication {
     public static void main(String[] args) {
         SpringApplication.run(OrderProcessingApplication.class, args);
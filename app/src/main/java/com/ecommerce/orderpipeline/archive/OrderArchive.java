@@ -0,0 +1,262 @@
+package com.ecommerce.orderpipeline.archive;
+
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventCodec;
+import com.ecommerce.orderpipeline.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the cold tier: the segment files in {@code app.archive.directory}, newest
+ * first. A lookup asks each segment in turn, and a segment whose key range cannot hold the
+ * orderId answers without touching its data. Segments written by another instance sharing
+ * the directory are picked up on the next refresh. {@link #compact} merges neighbouring
+ * segments so a lookup has a bounded number of them to ask.
+ */
+@Component
+public class OrderArchive {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchive.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.archive.directory:data/archive}")
+    private String directory;
+    
+    @Value("${app.archive.block-bytes:65536}")
+    private int blockBytes;
+    
+    private Path root;
+    private volatile List<Segment> segments = List.of();
+    
+    // Not synchronized: a monitor held across file I/O pins a virtual thread to its carrier
+    private final ReentrantLock segmentsLock = new ReentrantLock();
+    
+    private Timer hits;
+    private Timer misses;
+    
+    @PostConstruct
+    public void init() {
+        root = Paths.get(directory);
+        hits = Timer.builder("order.archive.lookups").tag("result", "hit").register(meterRegistry);
+        misses = Timer.builder("order.archive.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("order.archive.segments", this, a -> a.segments.size()).register(meterRegistry);
+        Gauge.builder("order.archive.orders", this, OrderArchive::archivedOrders)
+            .description("Orders held in archive segments, duplicates included")
+            .register(meterRegistry);
+        refresh();
+    }
+    
+    /**
+     * The archived copy of the order, if any. Callers check the hot table first.
+     */
+    public Optional<Order> find(String orderId) {
+        long start = System.nanoTime();
+        try {
+            for (Segment segment : segments) {
+                byte[] record = segment.find(orderId);
+                if (record != null) {
+                    hits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return Optional.of(OrderEventCodec.decodeOrder(record));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read archived order " + orderId, e);
+        }
+        misses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.empty();
+    }
+    
+    /**
+     * Writes the orders to a new segment and makes it visible to lookups. The segment is on
+     * disk (forced and renamed into place) before this returns, so the rows can be deleted.
+     * Returns the segment's size in bytes.
+     */
+    public long append(List<Order> orders) throws IOException {
+        TreeMap<String, byte[]> sorted = new TreeMap<>();
+        for (Order order : orders) {
+            sorted.put(order.getOrderId(), OrderEventCodec.encodeOrder(order));
+        }
+        
+        segmentsLock.lock();
+        try {
+            Files.createDirectories(root);
+            // Millis first so names sort by age; the random part keeps instances sharing the directory apart
+            Path target = root.resolve(String.format("%013d", System.currentTimeMillis()) + randomSuffix());
+            long size = writeSegment(target, sorted);
+            
+            List<Segment> next = new ArrayList<>(segments.size() + 1);
+            next.add(Segment.open(target));
+            next.addAll(segments);
+            segments = next;
+            return size;
+        } finally {
+            segmentsLock.unlock();
+        }
+    }
+    
+    /**
+     * While there are more than {@code maxSegments} segments, merges the {@code mergeFactor}
+     * neighbouring ones that hold the fewest orders. Only neighbours are merged, so the newest
+     * first order of lookups still holds; an order found in more than one keeps its highest
+     * version. The merged segment replaces the run before the old files are deleted. Returns
+     * the number of segments merged away.
+     */
+    public int compact(int maxSegments, int mergeFactor) throws IOException {
+        segmentsLock.lock();
+        try {
+            int removed = 0;
+            while (segments.size() > maxSegments) {
+                List<Segment> current = segments;
+                int width = Math.min(Math.max(2, mergeFactor), current.size());
+                int start = 0;
+                long fewest = Long.MAX_VALUE;
+                for (int i = 0; i + width <= current.size(); i++) {
+                    long total = 0;
+                    for (int j = i; j < i + width; j++) {
+                        total += current.get(j).getRecords();
+                    }
+                    if (total < fewest) {
+                        fewest = total;
+                        start = i;
+                    }
+                }
+                List<Segment> run = current.subList(start, start + width);
+                
+                TreeMap<String, byte[]> merged = new TreeMap<>();
+                for (Segment segment : run) {
+                    for (Map.Entry<String, byte[]> record : segment.readAll()) {
+                        byte[] kept = merged.get(record.getKey());
+                        if (kept == null || version(record.getValue()) > version(kept)) {
+                            merged.put(record.getKey(), record.getValue());
+                        }
+                    }
+                }
+                // Keeps the newest member's millis, so the merged segment sorts where the run did
+                String newest = run.get(0).getPath().getFileName().toString();
+                Path target = root.resolve(newest.substring(0, 13) + randomSuffix());
+                writeSegment(target, merged);
+                
+                List<Segment> next = new ArrayList<>(current.size() - width + 1);
+                next.addAll(current.subList(0, start));
+                next.add(Segment.open(target));
+                next.addAll(current.subList(start + width, current.size()));
+                segments = next;
+                for (Segment segment : run) {
+                    Files.deleteIfExists(segment.getPath());
+                }
+                logger.info("Compacted {} archive segments into {} ({} orders)", width, target.getFileName(), merged.size());
+                removed += width - 1;
+            }
+            return removed;
+        } finally {
+            segmentsLock.unlock();
+        }
+    }
+    
+    private long writeSegment(Path target, TreeMap<String, byte[]> sorted) throws IOException {
+        List<Map.Entry<String, byte[]>> records = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, byte[]> entry : sorted.entrySet()) {
+            records.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+        String name = target.getFileName().toString();
+        Path temporary = target.resolveSibling(name.substring(0, name.length() - Segment.SUFFIX.length()) + ".tmp");
+        try {
+            long size = Segment.write(temporary, records, blockBytes);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+    
+    private static String randomSuffix() {
+        return String.format("-%08x", ThreadLocalRandom.current().nextInt()) + Segment.SUFFIX;
+    }
+    
+    private static long version(byte[] record) {
+        Long version = OrderEventCodec.decodeOrder(record).getVersion();
+        return version == null ? -1 : version;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.archive.refresh-interval-ms:60000}",
+               initialDelayString = "${app.archive.refresh-interval-ms:60000}")
+    public void refresh() {
+        segmentsLock.lock();
+        try {
+            if (!Files.isDirectory(root)) {
+                return;
+            }
+            Map<Path, Segment> open = new HashMap<>();
+            for (Segment segment : segments) {
+                open.put(segment.getPath(), segment);
+            }
+            
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(root)) {
+                files = listing.filter(path -> path.getFileName().toString().endsWith(Segment.SUFFIX))
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+            } catch (IOException e) {
+                logger.warn("Could not list archive directory {}: {}", root, e.getMessage());
+                return;
+            }
+            
+            List<Segment> next = new ArrayList<>(files.size());
+            for (Path file : files) {
+                Segment segment = open.get(file);
+                if (segment == null) {
+                    try {
+                        segment = Segment.open(file);
+                    } catch (IOException e) {
+                        logger.warn("Skipping archive segment {}: {}", file, e.getMessage());
+                        continue;
+                    }
+                }
+                next.add(segment);
+            }
+            if (next.size() != segments.size()) {
+                logger.info("Order archive has {} segments in {}", next.size(), root);
+            }
+            segments = next;
+        } finally {
+            segmentsLock.unlock();
+        }
+    }
+    
+    private double archivedOrders() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.getRecords();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.orderpipeline.archive;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves terminal orders (CONFIRMED, CANCELLED) not updated for {@code min-age-ms} out of the
+ * {@code orders} table into {@link OrderArchive} segments, {@code batch-size} orders per
+ * segment. Rows are deleted at the version that was loaded, and only the orders whose delete
+ * went through are written; the segment is on disk before the delete commits, and a failed
+ * write rolls it back. A crash after the write but before the commit leaves an order in both
+ * tiers (the hot row wins) rather than in neither, and compaction later drops the older copy.
+ * After each run, segments are compacted down to {@code compact.max-segments}. Runs on its own
+ * thread, since a run can take longer than the shared scheduler should be held.
+ *
+ * <p>Enable on one instance, with the archive directory on storage the others can read.
+ */
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class OrderArchiver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+    
+    private static final Set<OrderStatus> TERMINAL = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+    
+    private static final int LOAD_CHUNK = 1000;
+    
+    private static final String DELETE_ITEMS =
+        "DELETE FROM order_items WHERE order_order_id IN (SELECT order_id FROM orders WHERE order_id = ? AND version = ?)";
+    
+    private static final String DELETE_ORDER =
+        "DELETE FROM orders WHERE order_id = ? AND version = ?";
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.archive.min-age-ms:604800000}")
+    private long minAgeMs;
+    
+    @Value("${app.archive.interval-ms:3600000}")
+    private long intervalMs;
+    
+    @Value("${app.archive.batch-size:10000}")
+    private int batchSize;
+    
+    @Value("${app.archive.compact.max-segments:32}")
+    private int maxSegments;
+    
+    @Value("${app.archive.compact.merge-factor:8}")
+    private int mergeFactor;
+    
+    private ScheduledExecutorService scheduler;
+    
+    private Counter archivedOrders;
+    private Counter archivedBytes;
+    private Timer batchTimer;
+    
+    @PostConstruct
+    public void init() {
+        archivedOrders = meterRegistry.counter("order.archive.archived");
+        archivedBytes = meterRegistry.counter("order.archive.bytes");
+        batchTimer = Timer.builder("order.archive.batch")
+            .description("Loading, writing and deleting one segment's worth of orders")
+            .register(meterRegistry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::run, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * Archives every eligible order, one batch at a time. Returns the number archived.
+     */
+    public int archiveOnce() throws Exception {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(minAgeMs));
+        long start = System.nanoTime();
+        int total = 0;
+        while (true) {
+            List<String> orderIds = orderRepository.findArchivableOrderIds(TERMINAL, cutoff, PageRequest.of(0, batchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            int archived = archiveBatch(orderIds);
+            total += archived;
+            if (orderIds.size() < batchSize || archived == 0) {
+                break;
+            }
+        }
+        
+        if (total > 0) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("Archived {} orders in {} ms ({} orders/s)",
+                total, Math.round(seconds * 1000), Math.round(total / seconds));
+        }
+        return total;
+    }
+    
+    private void run() {
+        try {
+            archiveOnce();
+            orderArchive.compact(maxSegments, mergeFactor);
+        } catch (Exception e) {
+            logger.error("Order archiving failed", e);
+        }
+    }
+    
+    private int archiveBatch(List<String> orderIds) throws Exception {
+        long start = System.nanoTime();
+        List<Order> orders = new ArrayList<>(orderIds.size());
+        for (int i = 0; i < orderIds.size(); i += LOAD_CHUNK) {
+            orders.addAll(orderRepository.findWithItemsByOrderIdIn(
+                orderIds.subList(i, Math.min(orderIds.size(), i + LOAD_CHUNK))));
+        }
+        
+        List<Object[]> keys = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            keys.add(new Object[] {order.getOrderId(), order.getVersion()});
+        }
+        List<Order> removed = new ArrayList<>(orders.size());
+        long bytes = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(DELETE_ITEMS, keys);
+            int[] deleted = jdbcTemplate.batchUpdate(DELETE_ORDER, keys);
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] != 0) {
+                    removed.add(orders.get(i));
+                }
+            }
+            try {
+                return removed.isEmpty() ? 0L : orderArchive.append(removed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        for (Order order : orders) {
+            orderCache.evict(order.getOrderId());
+        }
+        if (removed.size() < orders.size()) {
+            logger.warn("{} of {} orders changed before deletion and stay in the orders table",
+                orders.size() - removed.size(), orders.size());
+        }
+        
+        archivedOrders.increment(removed.size());
+        archivedBytes.increment(bytes);
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return removed.size();
+    }
+}
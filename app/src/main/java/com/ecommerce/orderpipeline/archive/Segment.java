@@ -0,0 +1,235 @@
+package com.ecommerce.orderpipeline.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive file of orders sorted by orderId.
+ *
+ * <p>Layout: deflate-compressed blocks of {@code [UTF key][int length][order bytes]} records,
+ * then a sparse index holding each block's first key, offset and lengths, then a fixed footer
+ * ({@code index offset, block count, record count, magic}). Only the index is read on open.
+ * The file is memory-mapped, so a lookup binary-searches the index and inflates the single
+ * block that can hold the key, straight from the page cache.
+ */
+final class Segment {
+    
+    static final String SUFFIX = ".seg";
+    
+    private static final int MAGIC = 0x4f415231; // "OAR1"
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES * 3;
+    
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final String[] firstKeys;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final String lastKey;
+    private final int records;
+    
+    private Segment(Path path, MappedByteBuffer data, String[] firstKeys, long[] offsets,
+                    int[] compressedLengths, int[] rawLengths, String lastKey, int records) {
+        this.path = path;
+        this.data = data;
+        this.firstKeys = firstKeys;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.lastKey = lastKey;
+        this.records = records;
+    }
+    
+    /**
+     * Writes {@code records} (sorted by key, no duplicates) to {@code target}, cutting a block
+     * whenever its uncompressed size reaches {@code blockBytes}. The file is forced to disk
+     * before this returns. Returns the file size.
+     */
+    static long write(Path target, List<Map.Entry<String, byte[]>> records, int blockBytes) throws IOException {
+        List<String> firstKeys = new ArrayList<>();
+        List<long[]> blocks = new ArrayList<>();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(blockBytes * 2);
+        DataOutputStream block = new DataOutputStream(raw);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] buffer = new byte[blockBytes];
+        long offset = 0;
+        
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            for (int i = 0; i < records.size(); i++) {
+                Map.Entry<String, byte[]> record = records.get(i);
+                if (raw.size() == 0) {
+                    firstKeys.add(record.getKey());
+                }
+                block.writeUTF(record.getKey());
+                block.writeInt(record.getValue().length);
+                block.write(record.getValue());
+                if (raw.size() >= blockBytes || i == records.size() - 1) {
+                    int compressed = deflate(deflater, raw.toByteArray(), out, buffer);
+                    blocks.add(new long[] {offset, compressed, raw.size()});
+                    offset += compressed;
+                    raw.reset();
+                }
+            }
+            
+            long indexOffset = offset;
+            for (int b = 0; b < blocks.size(); b++) {
+                out.writeUTF(firstKeys.get(b));
+                out.writeLong(blocks.get(b)[0]);
+                out.writeInt((int) blocks.get(b)[1]);
+                out.writeInt((int) blocks.get(b)[2]);
+            }
+            out.writeUTF(records.isEmpty() ? "" : records.get(records.size() - 1).getKey());
+            out.writeLong(indexOffset);
+            out.writeInt(blocks.size());
+            out.writeInt(records.size());
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+            return channel.size();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.capacity() < FOOTER_BYTES || data.getInt(data.capacity() - Integer.BYTES) != MAGIC) {
+                throw new IOException("Not a complete archive segment: " + path);
+            }
+            int footer = data.capacity() - FOOTER_BYTES;
+            long indexOffset = data.getLong(footer);
+            int blockCount = data.getInt(footer + Long.BYTES);
+            int records = data.getInt(footer + Long.BYTES + Integer.BYTES);
+            
+            byte[] index = new byte[footer - (int) indexOffset];
+            data.duplicate().position((int) indexOffset).get(index);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+            String[] firstKeys = new String[blockCount];
+            long[] offsets = new long[blockCount];
+            int[] compressedLengths = new int[blockCount];
+            int[] rawLengths = new int[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                firstKeys[b] = in.readUTF();
+                offsets[b] = in.readLong();
+                compressedLengths[b] = in.readInt();
+                rawLengths[b] = in.readInt();
+            }
+            String lastKey = in.readUTF();
+            return new Segment(path, data, firstKeys, offsets, compressedLengths, rawLengths, lastKey, records);
+        }
+    }
+    
+    /**
+     * The record stored under {@code key}, or null.
+     */
+    byte[] find(String key) throws IOException {
+        if (firstKeys.length == 0 || key.compareTo(firstKeys[0]) < 0 || key.compareTo(lastKey) > 0) {
+            return null;
+        }
+        // Last block whose first key is not after the key
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (firstKeys[mid].compareTo(key) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(low)));
+        while (in.available() > 0) {
+            int comparison = in.readUTF().compareTo(key);
+            int length = in.readInt();
+            if (comparison == 0) {
+                byte[] value = new byte[length];
+                in.readFully(value);
+                return value;
+            }
+            if (comparison > 0) {
+                return null;
+            }
+            in.skipBytes(length);
+        }
+        return null;
+    }
+    
+    /**
+     * Every record in key order. Used by compaction, which reads whole segments anyway.
+     */
+    List<Map.Entry<String, byte[]>> readAll() throws IOException {
+        List<Map.Entry<String, byte[]>> all = new ArrayList<>(records);
+        for (int block = 0; block < firstKeys.length; block++) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(block)));
+            while (in.available() > 0) {
+                String key = in.readUTF();
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                all.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+            }
+        }
+        return all;
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    int getRecords() {
+        return records;
+    }
+    
+    private byte[] inflate(int block) throws IOException {
+        ByteBuffer compressed = data.duplicate();
+        compressed.position((int) offsets[block]).limit((int) offsets[block] + compressedLengths[block]);
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + block + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static int deflate(Deflater deflater, byte[] raw, OutputStream out, byte[] buffer) throws IOException {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int total = 0;
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.orderpipeline.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where the application's own blocking work runs: platform threads (the default) or, with
+ * {@code app.threads.virtual=true} on Java 21+, virtual threads. The sources still target
+ * Java 11, so the virtual-thread API is looked up reflectively and only when enabled.
+ */
+public class ExecutionThreads {
+    
+    private static final int VIRTUAL_THREADS_SINCE = 21;
+    
+    private final boolean virtual;
+    private final Method ofVirtual;
+    private final Method builderName;
+    private final Method builderNameCounter;
+    private final Method builderFactory;
+    private final Method newThreadPerTaskExecutor;
+    
+    public ExecutionThreads(boolean virtual) {
+        this.virtual = virtual;
+        if (!virtual) {
+            ofVirtual = null;
+            builderName = null;
+            builderNameCounter = null;
+            builderFactory = null;
+            newThreadPerTaskExecutor = null;
+            return;
+        }
+        if (Runtime.version().feature() < VIRTUAL_THREADS_SINCE) {
+            throw new IllegalStateException("app.threads.virtual needs Java " + VIRTUAL_THREADS_SINCE
+                + " or later, running on " + Runtime.version());
+        }
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builder.getMethod("name", String.class);
+            builderNameCounter = builder.getMethod("name", String.class, long.class);
+            builderFactory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), e);
+        }
+    }
+    
+    public boolean isVirtual() {
+        return virtual;
+    }
+    
+    /**
+     * A single-threaded executor whose thread is called {@code name}; tasks run in submission order.
+     */
+    public ExecutorService newSingleThreadExecutor(String name) {
+        if (!virtual) {
+            return Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+        return Executors.newSingleThreadExecutor(virtualFactory(name, false));
+    }
+    
+    /**
+     * An executor for independent blocking tasks. Platform mode uses a fixed pool of
+     * {@code platformThreads}; virtual mode starts a virtual thread per task, so callers bound
+     * concurrency themselves (a semaphore, the connection pool).
+     */
+    public ExecutorService newExecutor(String prefix, int platformThreads) {
+        if (!virtual) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newFixedThreadPool(platformThreads,
+                runnable -> new Thread(runnable, prefix + threads.getAndIncrement()));
+        }
+        try {
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, virtualFactory(prefix, true));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual-thread executor", e);
+        }
+    }
+    
+    private ThreadFactory virtualFactory(String name, boolean numbered) {
+        try {
+            Object builder = ofVirtual.invoke(null);
+            builder = numbered ? builderNameCounter.invoke(builder, name, 0L) : builderName.invoke(builder, name);
+            return (ThreadFactory) builderFactory.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread factory", e);
+        }
+    }
+}
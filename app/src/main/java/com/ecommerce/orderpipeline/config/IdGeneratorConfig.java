@@ -0,0 +1,73 @@
+package com.ecommerce.orderpipeline.config;
+
+import com.ecommerce.orderpipeline.id.IdGenerator;
+import com.ecommerce.orderpipeline.id.Ids;
+import com.ecommerce.orderpipeline.id.SnowflakeIdGenerator;
+import com.ecommerce.orderpipeline.id.UuidIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Configuration
+public class IdGeneratorConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+    
+    // StatefulSet pods are named <set>-<ordinal>, which gives every instance a distinct worker ID
+    private static final Pattern ORDINAL = Pattern.compile("-(\\d+)$");
+    
+    @Value("${app.ids.generator:snowflake}")
+    private String generator;
+    
+    @Value("${app.ids.worker-id:-1}")
+    private int workerId;
+    
+    /**
+     * The generator for orderIds and eventIds, also installed in {@link Ids} so events built
+     * outside of beans use the same one. Two instances sharing a worker ID can hand out the
+     * same ID within a millisecond, so set {@code app.ids.worker-id} explicitly when the
+     * hostname carries no ordinal.
+     */
+    @Bean
+    public IdGenerator idGenerator() {
+        IdGenerator idGenerator;
+        if ("uuid".equalsIgnoreCase(generator)) {
+            idGenerator = new UuidIdGenerator();
+            logger.info("Using random UUIDs for order and event IDs");
+        } else if ("snowflake".equalsIgnoreCase(generator)) {
+            int worker = workerId >= 0 ? workerId : deriveWorkerId();
+            idGenerator = new SnowflakeIdGenerator(worker);
+            logger.info("Using time-ordered IDs for order and event IDs, worker ID {}", worker);
+        } else {
+            throw new IllegalStateException("Unknown app.ids.generator: " + generator);
+        }
+        Ids.use(idGenerator);
+        return idGenerator;
+    }
+    
+    private int deriveWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+        Matcher matcher = ORDINAL.matcher(host);
+        if (matcher.find() && matcher.group(1).length() < 5) {
+            int ordinal = Integer.parseInt(matcher.group(1));
+            if (ordinal <= SnowflakeIdGenerator.MAX_WORKER_ID) {
+                return ordinal;
+            }
+        }
+        int hashed = (host + "/" + ProcessHandle.current().pid()).hashCode() & SnowflakeIdGenerator.MAX_WORKER_ID;
+        logger.warn("No app.ids.worker-id set and host {} has no ordinal; using hashed worker ID {}, "
+            + "which may collide with another instance", host, hashed);
+        return hashed;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.orderpipeline.config;
+
+import com.ecommerce.orderpipeline.kafka.consumer.AckTracker;
+import com.ecommerce.orderpipeline.kafka.consumer.KeyOrderedDispatcher;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTier;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTopics;
+import com.ecommerce.orderpipeline.service.EventDeduplicator;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Configuration
+@EnableKafka
+public class KafkaConfig {
+    
+    @Value("${app.kafka.topics.order-placed}")
+    private String orderPlacedTopic;
+    
+    @Value("${app.kafka.topics.order-validated}")
+    private String orderValidatedTopic;
+    
+    @Value("${app.kafka.topics.inventory-reserved}")
+    private String inventoryReservedTopic;
+    
+    @Value("${app.kafka.topics.payment-processed}")
+    private String paymentProcessedTopic;
+    
+    @Value("${app.kafka.topics.order-confirmed}")
+    private String orderConfirmedTopic;
+    
+    @Value("${app.kafka.topics.order-failed}")
+    private String orderFailedTopic;
+    
+    @Value("${app.kafka.topics.dlq-orders}")
+    private String dlqOrdersTopic;
+    
+    @Value("${app.kafka.topics.partitions:3}")
+    private int partitions;
+    
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+    
+    @Autowired
+    private AckTracker ackTracker;
+    
+    @Autowired
+    private KeyOrderedDispatcher dispatcher;
+    
+    @Bean
+    public NewTopic orderPlacedTopic() {
+        return TopicBuilder.name(orderPlacedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic orderValidatedTopic() {
+        return TopicBuilder.name(orderValidatedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic inventoryReservedTopic() {
+        return TopicBuilder.name(inventoryReservedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic paymentProcessedTopic() {
+        return TopicBuilder.name(paymentProcessedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic orderConfirmedTopic() {
+        return TopicBuilder.name(orderConfirmedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic orderFailedTopic() {
+        return TopicBuilder.name(orderFailedTopic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public NewTopic dlqOrdersTopic() {
+        return TopicBuilder.name(dlqOrdersTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+    
+    @Bean
+    public KafkaAdmin.NewTopics retryTierTopics(RetryTopics retryTopics) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (RetryTier tier : retryTopics.getAllTiers()) {
+            topics.add(TopicBuilder.name(tier.getTopic())
+                    .partitions(partitions)
+                    .replicas(1)
+                    .build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(new NewTopic[0]));
+    }
+    
+    /**
+     * Record listener factory for the main stage topics. Stages ack in completion order (payment
+     * callbacks, parallel lanes); {@link AckTracker} holds those acks back until every earlier
+     * offset of the partition is done, so the container only ever sees in-order commits.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> stageKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setConsumerRebalanceListener(stageRebalanceListener());
+        return factory;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.consumer.batch-enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(stageRebalanceListener());
+        return factory;
+    }
+    
+    private ConsumerAwareRebalanceListener stageRebalanceListener() {
+        return new ConsumerAwareRebalanceListener() {
+            // Acks still pending for a partition that moved must not reach the new assignment,
+            // and its queued lane work is the new owner's to redo
+            @Override
+            public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                ackTracker.revoked(partitions);
+                dispatcher.revoked(partitions);
+            }
+            
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                ackTracker.revoked(partitions);
+                dispatcher.revoked(partitions);
+            }
+            
+            // Newly assigned partitions bring history other instances processed, so catch up on those keys
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    eventDeduplicator.requestReload();
+                }
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.ecommerce.orderpipeline.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ThreadingConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+    
+    @Value("${app.threads.virtual:false}")
+    private boolean virtual;
+    
+    @Bean
+    public ExecutionThreads executionThreads() {
+        ExecutionThreads threads = new ExecutionThreads(virtual);
+        logger.info("Running blocking work on {} threads", virtual ? "virtual" : "platform");
+        return threads;
+    }
+    
+    /**
+     * Serves every HTTP request on its own virtual thread instead of Tomcat's bounded worker
+     * pool, so requests waiting on JDBC no longer hold a scarce thread. The connector's
+     * {@code max-connections} and admission control still bound how many are in progress.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequestExecutor(ExecutionThreads executionThreads) {
+        return protocolHandler -> protocolHandler.setExecutor(executionThreads.newExecutor("http-", 0));
+    }
+}
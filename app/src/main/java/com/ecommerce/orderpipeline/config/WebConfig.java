@@ -0,0 +1,56 @@
+package com.ecommerce.orderpipeline.config;
+
+import com.ecommerce.orderpipeline.controller.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    /**
+     * Request attribute holding a Long timeout in ms that overrides
+     * {@code spring.mvc.async.request-timeout} for that request's async processing.
+     */
+    public static final String ASYNC_TIMEOUT_ATTRIBUTE = WebConfig.class.getName() + ".asyncTimeout";
+    
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+    
+    @Autowired
+    private ExecutionThreads executionThreads;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Order placement only; reads and health checks are never shed
+        registry.addInterceptor(admissionInterceptor)
+            .addPathPatterns("/api/orders", "/api/orders/batch");
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Bulk placement and export stream for minutes on one JDBC connection; give each its own virtual thread
+        if (executionThreads.isVirtual()) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(executionThreads.newExecutor("mvc-async-", 0)));
+        }
+        // Runs after the default timeout is applied and before async processing starts, so it can still override it
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(ASYNC_TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Long && request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout((Long) timeout);
+                }
+            }
+        });
+    }
+}
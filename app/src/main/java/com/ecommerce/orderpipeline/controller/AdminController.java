@@ -0,0 +1,53 @@
+package com.ecommerce.orderpipeline.controller;
+
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.ShardedStockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @GetMapping("/inventory/{productId}/available")
+    public ResponseEntity<Long> getAvailableQuantity(@PathVariable String productId) {
+        try {
+            return ResponseEntity.ok(inventoryService.getAvailableQuantity(productId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/inventory/{productId}/shards")
+    public ResponseEntity<String> enableSharding(
+            @PathVariable String productId,
+            @RequestParam(defaultValue = "${app.inventory.sharding.default-shards:8}") int count) {
+        try {
+            shardedStockService.enableSharding(productId, count);
+            return ResponseEntity.ok(
+                String.format("Stock for product %s sharded across %d buckets", productId, count));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Failed to shard product stock: " + e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/inventory/{productId}/shards")
+    public ResponseEntity<String> disableSharding(@PathVariable String productId) {
+        try {
+            shardedStockService.disableSharding(productId);
+            return ResponseEntity.ok(
+                String.format("Stock buckets for product %s merged", productId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Failed to merge product stock: " + e.getMessage());
+        }
+    }
+}
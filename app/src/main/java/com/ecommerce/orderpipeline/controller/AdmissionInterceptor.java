@@ -0,0 +1,57 @@
+package com.ecommerce.orderpipeline.controller;
+
+import com.ecommerce.orderpipeline.service.AdmissionControl;
+import com.ecommerce.orderpipeline.service.AdmissionControl.Decision;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs admission control on order placement before the request body is read. The per-customer
+ * limit is keyed on the authenticated user ({@link HttpServletRequest#getRemoteUser()}), set by
+ * the container or an authenticating filter ahead of this one. Customer IDs sent in headers or
+ * in the order itself are not trusted, so unauthenticated requests get only the global limit.
+ * A bulk request is admitted here for its first order; {@code BulkOrderService} charges the rest.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+    
+    @Autowired
+    private AdmissionControl admissionControl;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        Decision decision = admissionControl.admit(request.getRemoteUser());
+        if (decision.isAdmitted()) {
+            return true;
+        }
+        
+        response.setStatus(statusOf(decision).value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getOutputStream().write(messageOf(decision).getBytes(StandardCharsets.UTF_8));
+        return false;
+    }
+    
+    private static HttpStatus statusOf(Decision decision) {
+        return decision.getResult() == AdmissionControl.Result.CUSTOMER_LIMITED
+            ? HttpStatus.TOO_MANY_REQUESTS
+            : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+    
+    static String messageOf(Decision decision) {
+        return decision.getResult() == AdmissionControl.Result.CUSTOMER_LIMITED
+            ? "Too many orders for this customer, retry in " + decision.getRetryAfterSeconds() + "s"
+            : "Order intake is saturated, retry in " + decision.getRetryAfterSeconds() + "s";
+    }
+}
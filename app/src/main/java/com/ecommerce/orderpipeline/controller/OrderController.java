@@ -0,0 +1,248 @@
+package com.ecommerce.orderpipeline.controller;
+
+import com.ecommerce.orderpipeline.config.WebConfig;
+import com.ecommerce.orderpipeline.dto.OrderStatusView;
+import com.ecommerce.orderpipeline.id.IdGenerator;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.BulkOrderService;
+import com.ecommerce.orderpipeline.service.OrderExportService;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.OrderStatusReadModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+    
+    // Key of the per-request interceptor that returns an export slot whose body never ran
+    private static final String EXPORT_PERMIT = OrderController.class.getName() + ".exportPermit";
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderStatusReadModel statusReadModel;
+    
+    @Autowired
+    private BulkOrderService bulkOrderService;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    @Autowired
+    private OrderExportService exportService;
+    
+    @Value("${app.orders.status-cache.max-wait-ms:30000}")
+    private long maxWaitMs;
+    
+    @Value("${app.orders.export.timeout-ms:3600000}")
+    private long exportTimeoutMs;
+    
+    @PostMapping
+    public ResponseEntity<String> placeOrder(@Valid @RequestBody Order order) {
+        try {
+            // Generate order ID if not provided
+            if (order.getOrderId() == null) {
+                order.setOrderId(idGenerator.nextId());
+            }
+            
+            Order savedOrder = orderService.placeOrder(order);
+            
+            return ResponseEntity.ok(
+                String.format("Order placed successfully. Order ID: %s", savedOrder.getOrderId()));
+        
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Failed to place order: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Accepts NDJSON or a JSON array of orders and streams one NDJSON result line per order
+     * back as each group commit completes.
+     */
+    @PostMapping(value = "/batch",
+                 consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> placeOrders(HttpServletRequest request) {
+        StreamingResponseBody results = out -> bulkOrderService.placeOrders(request.getInputStream(), out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(results);
+    }
+    
+    /**
+     * Streams orders created in {@code [from, to)}, optionally only those in the given statuses,
+     * as NDJSON or CSV. Gzipped when the client accepts it. Rejected with 400 when the range
+     * reaches into archived orders and with 503 when too many exports are already running.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime earliest = exportService.earliestFrom();
+        if (earliest != null && from.isBefore(earliest)) {
+            return plainText(ResponseEntity.badRequest(),
+                "Orders created before " + earliest + " may be archived; export a later range");
+        }
+        if (!exportService.tryAcquire()) {
+            return plainText(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60"),
+                "Too many exports running, retry later");
+        }
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        request.setAttribute(WebConfig.ASYNC_TIMEOUT_ATTRIBUTE, exportTimeoutMs);
+        
+        // The body may never run (rejected, or the request timed out or failed first), so whichever
+        // of the body and the end of async processing claims the permit first is the one to return it
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_PERMIT,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                    if (claimed.compareAndSet(false, true)) {
+                        exportService.release();
+                    }
+                }
+            });
+        
+        StreamingResponseBody body = out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+                    exportService.export(status, from, until, exportFormat, compressed);
+                    compressed.finish();
+                } else {
+                    exportService.export(status, from, until, exportFormat, out);
+                }
+            } finally {
+                exportService.release();
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(exportFormat == OrderExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.name().toLowerCase() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> plainText(ResponseEntity.BodyBuilder builder, String message) {
+        return builder.contentType(MediaType.TEXT_PLAIN)
+            .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @GetMapping("/{orderId}")
+    public ResponseEntity<Order> getOrder(@PathVariable String orderId,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            Optional<OrderStatusView> view = statusReadModel.get(orderId);
+            if (view.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = OrderStatusReadModel.etagOf(view.get());
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            
+            Order order = orderService.getOrder(orderId, view.get().getVersion());
+            return ResponseEntity.ok().eTag(etag).body(order);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Current saga status from the read model. Honours If-None-Match; with
+     * {@code waitForChange} (ms) a request whose ETag still matches is held open until the
+     * status changes or the wait runs out, instead of the client polling.
+     */
+    @GetMapping("/{orderId}/status")
+    public DeferredResult<ResponseEntity<OrderStatusView>> getOrderStatus(
+            @PathVariable String orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Long waitForChange) {
+        Optional<OrderStatusView> view = statusReadModel.get(orderId);
+        if (view.isEmpty()) {
+            DeferredResult<ResponseEntity<OrderStatusView>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+        
+        String etag = OrderStatusReadModel.etagOf(view.get());
+        if (waitForChange == null || waitForChange <= 0 || !etag.equals(ifNoneMatch)) {
+            DeferredResult<ResponseEntity<OrderStatusView>> result = new DeferredResult<>();
+            result.setResult(statusResponse(view.get(), ifNoneMatch));
+            return result;
+        }
+        
+        DeferredResult<ResponseEntity<OrderStatusView>> result =
+            new DeferredResult<>(Math.min(waitForChange, maxWaitMs));
+        Runnable onChange = () -> statusReadModel.get(orderId)
+            .ifPresent(latest -> result.setResult(statusResponse(latest, ifNoneMatch)));
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build()));
+        result.onCompletion(() -> statusReadModel.unwatch(orderId, onChange));
+        statusReadModel.watch(orderId, onChange);
+        
+        // The status may have moved on between the first read and registering the watcher
+        statusReadModel.get(orderId)
+            .filter(latest -> !OrderStatusReadModel.etagOf(latest).equals(etag))
+            .ifPresent(latest -> result.setResult(statusResponse(latest, ifNoneMatch)));
+        return result;
+    }
+    
+    @GetMapping("/health")
+    public ResponseEntity<String> health() {
+        return ResponseEntity.ok("Order Processing Service is healthy");
+    }
+    
+    private ResponseEntity<OrderStatusView> statusResponse(OrderStatusView view, String ifNoneMatch) {
+        String etag = OrderStatusReadModel.etagOf(view);
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(view);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.ecommerce.orderpipeline.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    private int index;
+    private String orderId;
+    private boolean accepted;
+    private String error;
+    
+    public static BulkOrderResult accepted(int index, String orderId) {
+        return new BulkOrderResult(index, orderId, true, null);
+    }
+    
+    public static BulkOrderResult rejected(int index, String orderId, String error) {
+        return new BulkOrderResult(index, orderId, false, error);
+    }
+}
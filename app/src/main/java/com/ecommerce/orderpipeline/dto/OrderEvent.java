@@ -0,0 +1,59 @@
+package com.ecommerce.orderpipeline.dto;
+
+import com.ecommerce.orderpipeline.id.Ids;
+import com.ecommerce.orderpipeline.kafka.serialization.EpochMillisDeserializer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZoneId;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+    private String eventId;
+    private String orderId;
+    private Order order;
+    private Long orderVersion;
+    private String customerId;
+    private Double totalAmount;
+    private OrderStatus status;
+    private String message;
+    // Epoch millis, comparable across instances; JSON written before the switch used LocalDateTime
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long timestamp;
+    // Epoch millis when the order was placed, carried along so the last stage can time the whole saga
+    private Long placedAt;
+    private String sourceService;
+    
+    public OrderEvent(String orderId, Order order, OrderStatus status, String message, String sourceService) {
+        this.eventId = Ids.next();
+        this.orderId = orderId;
+        this.order = order;
+        if (order != null) {
+            this.orderVersion = order.getVersion();
+            this.customerId = order.getCustomerId();
+            this.totalAmount = order.getTotalAmount();
+            if (order.getCreatedAt() != null) {
+                this.placedAt = order.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+        }
+        this.status = status;
+        this.message = message;
+        this.sourceService = sourceService;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * Copy of this event without the nested order, for internal stage topics. Consumers
+     * fetch the full order from their local cache when they need more than these fields.
+     */
+    public OrderEvent withoutOrder() {
+        return new OrderEvent(eventId, orderId, null, orderVersion, customerId, totalAmount,
+            status, message, timestamp, placedAt, sourceService);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ecommerce.orderpipeline.dto;
+
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusView {
+    private String orderId;
+    private OrderStatus status;
+    private Long version;
+    private String message;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderpipeline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResult {
+    private String orderId;
+    private boolean success;
+    private String failureReason;
+    
+    public static ReservationResult success(String orderId) {
+        return new ReservationResult(orderId, true, null);
+    }
+    
+    public static ReservationResult failure(String orderId, String failureReason) {
+        return new ReservationResult(orderId, false, failureReason);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.orderpipeline.id;
+
+/**
+ * Source of orderIds and eventIds. Selected with {@code app.ids.generator}; see
+ * {@link com.ecommerce.orderpipeline.config.IdGeneratorConfig}.
+ */
+public interface IdGenerator {
+    
+    String nextId();
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderpipeline.id;
+
+/**
+ * Static access to the configured {@link IdGenerator} for code that is not a bean, such as
+ * the OrderEvent constructor. Until the application installs its generator (and in plain
+ * unit tests) this uses a Snowflake generator with worker ID 0.
+ */
+public final class Ids {
+    
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(0);
+    
+    private Ids() {
+    }
+    
+    public static String next() {
+        return generator.nextId();
+    }
+    
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
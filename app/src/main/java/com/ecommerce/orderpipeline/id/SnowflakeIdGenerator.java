@@ -0,0 +1,96 @@
+package com.ecommerce.orderpipeline.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit IDs: 41 bits of milliseconds since 2024-01-01, a 10-bit worker ID and
+ * a 12-bit per-millisecond sequence. One CAS on a single AtomicLong per ID, no locks and no
+ * randomness. IDs from one worker strictly increase. If the clock steps back, or more than 4096
+ * IDs are drawn in one millisecond, the sequence simply runs into the next millisecond instead
+ * of waiting.
+ *
+ * <p>IDs are rendered as 13 Crockford base32 characters. The width is fixed, so string order
+ * matches creation order and new rows append to the end of a B-tree index.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+    
+    public static final long EPOCH_MILLIS = 1704067200000L;
+    public static final int WORKER_BITS = 10;
+    public static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+    
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+    
+    private final long workerBits;
+    
+    // Last (timestamp << SEQUENCE_BITS | sequence) handed out; a sequence overflow carries into the timestamp
+    private final AtomicLong last = new AtomicLong();
+    
+    public SnowflakeIdGenerator(int workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+    }
+    
+    @Override
+    public String nextId() {
+        return format(nextLong());
+    }
+    
+    public long nextLong() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+        
+        long timestamp = next >>> SEQUENCE_BITS;
+        return timestamp << (WORKER_BITS + SEQUENCE_BITS) | workerBits | (next & SEQUENCE_MASK);
+    }
+    
+    public static String format(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    public static long parse(String id) {
+        if (id.length() != LENGTH) {
+            throw new IllegalArgumentException("Not a " + LENGTH + "-character ID: " + id);
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = indexOf(id.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a base32 ID: " + id);
+            }
+            value = value << 5 | digit;
+        }
+        return value;
+    }
+    
+    public static long timestampMillis(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+    
+    public static int workerId(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+    
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderpipeline.id;
+
+import java.util.UUID;
+
+/**
+ * Random UUIDs, as used before time-ordered IDs. Every call draws from the shared
+ * SecureRandom, and consecutive IDs land anywhere in an index.
+ */
+public class UuidIdGenerator implements IdGenerator {
+    
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns out-of-order acknowledgments into in-order commits. Stage methods ack from lanes,
+ * payment callbacks and producer callbacks in whatever order those complete; a record's ack is
+ * passed on to the container only once every earlier record of its partition has been acked
+ * too, so the committed offset never moves past a record that is still being processed.
+ *
+ * <p>A record that can be neither finished nor routed to a retry tier is nacked instead. That
+ * rewinds its partition to the lowest offset not yet committed: the consumer seeks back there,
+ * records still arriving from before the seek are skipped, and everything from that offset on
+ * is processed again. Work in flight for the old records finishes, but its acks are dropped.
+ */
+@Component
+public class AckTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AckTracker.class);
+    
+    private final Map<TopicPartition, PartitionAcks> partitions = new ConcurrentHashMap<>();
+    
+    /**
+     * Registers a record; must be called on the consumer thread, in offset order. Returns the
+     * acknowledgment the stage calls instead of the container's, or null for a record the
+     * partition was rewound past, which the caller skips because it will be delivered again.
+     * {@code seeker} is the consumer's seek callback for the partition, used by {@code nack}.
+     */
+    public Acknowledgment track(String topic, int partition, long offset, Acknowledgment ack,
+                                ConsumerSeekCallback seeker) {
+        return partitions.computeIfAbsent(new TopicPartition(topic, partition), PartitionAcks::new)
+            .register(offset, ack, seeker);
+    }
+    
+    /**
+     * Records of the partition that are registered but not yet committable.
+     */
+    public int pending(TopicPartition partition) {
+        PartitionAcks acks = partitions.get(partition);
+        return acks == null ? 0 : acks.size();
+    }
+    
+    /**
+     * Forgets revoked partitions. Their unfinished records are redelivered to the new owner,
+     * so late acks for them must not reach the container.
+     */
+    public void revoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            PartitionAcks acks = partitions.remove(partition);
+            if (acks != null) {
+                acks.clear();
+            }
+        }
+    }
+    
+    private static class PartitionAcks {
+        
+        private final TopicPartition partition;
+        
+        // Offset -> record, guarded by this
+        private final TreeMap<Long, Pending> pending = new TreeMap<>();
+        
+        // Offset the consumer was sent back to, until that record arrives again; -1 if none
+        private long rewoundTo = -1;
+        private ConsumerSeekCallback seeker;
+        
+        PartitionAcks(TopicPartition partition) {
+            this.partition = partition;
+        }
+        
+        synchronized Acknowledgment register(long offset, Acknowledgment ack, ConsumerSeekCallback seeker) {
+            if (rewoundTo >= 0) {
+                if (offset > rewoundTo) {
+                    return null;
+                }
+                rewoundTo = -1;
+            }
+            this.seeker = seeker;
+            // A redelivered offset (error handler seek) replaces the earlier attempt
+            Pending record = new Pending(ack);
+            pending.put(offset, record);
+            return new Acknowledgment() {
+                @Override
+                public void acknowledge() {
+                    complete(offset, record);
+                }
+                
+                // The sleep is not applied: the records are read again as soon as the seek is done
+                @Override
+                public void nack(long sleepMillis) {
+                    rewind(offset, record);
+                }
+            };
+        }
+        
+        synchronized void rewind(long offset, Pending record) {
+            // Settled, or already covered by an earlier rewind, which went back at least this far
+            if (record.done || pending.get(offset) != record) {
+                return;
+            }
+            long from = pending.firstKey();
+            pending.clear();
+            if (seeker == null) {
+                logger.error("Cannot rewind {} to offset {}; it is redelivered after the next rebalance",
+                    partition, from);
+                return;
+            }
+            rewoundTo = from;
+            seeker.seek(partition.topic(), partition.partition(), from);
+            logger.warn("Rewound {} to offset {} after offset {} could not be published", partition, from, offset);
+        }
+        
+        synchronized void complete(long offset, Pending record) {
+            if (record.done || pending.get(offset) != record) {
+                return;
+            }
+            record.done = true;
+            
+            // Committing the highest ack of the contiguous done prefix covers all of it
+            Acknowledgment last = null;
+            while (!pending.isEmpty() && pending.firstEntry().getValue().done) {
+                last = pending.pollFirstEntry().getValue().ack;
+            }
+            if (last != null) {
+                last.acknowledge();
+            }
+        }
+        
+        synchronized int size() {
+            return pending.size();
+        }
+        
+        synchronized void clear() {
+            pending.clear();
+        }
+    }
+    
+    private static class Pending {
+        
+        final Acknowledgment ack;
+        boolean done;
+        
+        Pending(Acknowledgment ack) {
+            this.ack = ack;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans records of one partition out to a pool of single-threaded lanes, enabled with
+ * {@code app.kafka.consumer.parallel.enabled=true}. Records with the same key always land on
+ * the same lane, so each order's events are still handled in offset order. Stage methods ack
+ * from the lane, out of order; the stage container factory commits only the contiguous prefix.
+ * Once {@code max-in-flight-per-partition} records of a partition are queued or running, that
+ * partition is paused on its container and resumed when half have finished, so the consumer
+ * thread never waits. Records the last poll already returned still arrive, so the bound is
+ * soft by up to {@code max.poll.records}. Tasks still queued for a revoked partition are
+ * dropped; the partition's new owner processes them from the committed offset.
+ */
+@Component
+public class KeyOrderedDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+    
+    @Autowired
+    private ExecutionThreads executionThreads;
+    
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+    
+    @Value("${app.kafka.consumer.parallel.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.kafka.consumer.parallel.lanes:0}")
+    private int lanes;
+    
+    @Value("${app.kafka.consumer.parallel.max-in-flight-per-partition:64}")
+    private int maxInFlightPerPartition;
+    
+    private ExecutorService[] laneExecutors;
+    
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        int laneCount = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        laneExecutors = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            laneExecutors[i] = executionThreads.newSingleThreadExecutor("order-lane-" + i);
+        }
+        logger.info("Key-ordered parallel processing on {} lanes, {} in flight per partition",
+            laneCount, maxInFlightPerPartition);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (laneExecutors == null) {
+            return;
+        }
+        for (ExecutorService lane : laneExecutors) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : laneExecutors) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Runs the task on the key's lane, or inline on the consumer thread when parallel mode is off.
+     * Must be called on the consumer thread that owns the partition.
+     */
+    public void dispatch(String topic, int partition, String key, Runnable task) {
+        if (laneExecutors == null) {
+            task.run();
+            return;
+        }
+        
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        PartitionState state = partitions.computeIfAbsent(topicPartition, PartitionState::new);
+        if (state.inFlight.incrementAndGet() >= maxInFlightPerPartition && !state.paused) {
+            throttle(state);
+        }
+        try {
+            laneExecutors[laneFor(key)].execute(() -> {
+                try {
+                    // A revoked partition's state is replaced, so its leftover tasks see they are stale
+                    if (partitions.get(topicPartition) == state) {
+                        task.run();
+                    }
+                } finally {
+                    finished(state);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            finished(state);
+            throw e;
+        }
+    }
+    
+    /**
+     * Called from the rebalance listener. Drops the partitions' queued tasks and lifts any pause
+     * this dispatcher put on them.
+     */
+    public void revoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            PartitionState state = partitions.remove(partition);
+            if (state != null) {
+                synchronized (state) {
+                    if (state.paused) {
+                        state.paused = false;
+                        resume(state);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void finished(PartitionState state) {
+        if (state.inFlight.decrementAndGet() <= maxInFlightPerPartition / 2 && state.paused) {
+            throttle(state);
+        }
+    }
+    
+    private void throttle(PartitionState state) {
+        synchronized (state) {
+            int inFlight = state.inFlight.get();
+            if (!state.paused && inFlight >= maxInFlightPerPartition && partitions.get(state.partition) == state) {
+                state.container = containerOf(state.partition);
+                if (state.container != null) {
+                    state.paused = true;
+                    state.container.pausePartition(state.partition);
+                    logger.debug("Paused {} with {} records in flight", state.partition, inFlight);
+                }
+            } else if (state.paused && inFlight <= maxInFlightPerPartition / 2) {
+                state.paused = false;
+                resume(state);
+                logger.debug("Resumed {} with {} records in flight", state.partition, inFlight);
+            }
+        }
+    }
+    
+    // A pause request outlives the assignment, so clear it on every child, not just the current owner
+    private static void resume(PartitionState state) {
+        if (state.container instanceof ConcurrentMessageListenerContainer) {
+            for (MessageListenerContainer child : ((ConcurrentMessageListenerContainer<?, ?>) state.container).getContainers()) {
+                child.resumePartition(state.partition);
+            }
+        } else if (state.container != null) {
+            state.container.resumePartition(state.partition);
+        }
+    }
+    
+    // Called on the consumer thread, which holds the partition, so exactly one container has it
+    private MessageListenerContainer containerOf(TopicPartition partition) {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            if (assigned != null && assigned.contains(partition)) {
+                return container;
+            }
+        }
+        return null;
+    }
+    
+    private int laneFor(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), laneExecutors.length);
+    }
+    
+    private static class PartitionState {
+        
+        final TopicPartition partition;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile boolean paused;
+        MessageListenerContainer container;
+        
+        PartitionState(TopicPartition partition) {
+            this.partition = partition;
+        }
+    }
+}
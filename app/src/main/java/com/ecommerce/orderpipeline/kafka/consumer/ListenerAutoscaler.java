@@ -0,0 +1,439 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes each saga stage's listener container from its consumer lag and processing rate,
+ * enabled with {@code app.kafka.autoscale.enabled=true}. Every interval it reads the lag of
+ * every stage topic through the admin client. A stage scales up when its backlog would take
+ * longer than {@code target-drain-seconds} to clear. It scales down when it is nearly caught up
+ * and mostly idle. Either condition must hold for {@code stable-intervals} reads in a row, and
+ * a stage is left alone for {@code cooldown-ms} after a change, so decisions do not flap.
+ *
+ * <p>Consumers beyond a topic's partition count would sit idle, so concurrency is capped there.
+ * The partition count the stage would need is published as a recommendation. With
+ * {@code partitions.apply=true} the topic is grown to match (never shrunk).
+ * Decisions are exported as {@code order.autoscale.*} meters and under {@code autoscaling}
+ * in {@code /actuator/info}.
+ *
+ * <p>A container only takes a new concurrency on restart. Before restarting, it is paused and
+ * the autoscaler waits up to {@code drain-timeout-ms} for every record it has handed out to be
+ * acked, so no lane, payment or producer callback is still running when its consumers close.
+ * A container that does not drain in time is resumed and left at its size. The autoscaler runs
+ * on a thread of its own, because admin calls and draining block for seconds.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.autoscale.enabled", havingValue = "true")
+public class ListenerAutoscaler implements InfoContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ListenerAutoscaler.class);
+    
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+    
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+    
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private AckTracker ackTracker;
+    
+    @Value("${app.kafka.autoscale.interval-ms:15000}")
+    private long intervalMs;
+    
+    @Value("${app.kafka.autoscale.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+    
+    @Value("${app.kafka.topics.order-placed}")
+    private String orderPlacedTopic;
+    
+    @Value("${app.kafka.topics.order-validated}")
+    private String orderValidatedTopic;
+    
+    @Value("${app.kafka.topics.inventory-reserved}")
+    private String inventoryReservedTopic;
+    
+    @Value("${app.kafka.topics.payment-processed}")
+    private String paymentProcessedTopic;
+    
+    @Value("${app.kafka.autoscale.min-concurrency:1}")
+    private int minConcurrency;
+    
+    @Value("${app.kafka.autoscale.max-concurrency:12}")
+    private int maxConcurrency;
+    
+    @Value("${app.kafka.autoscale.target-drain-seconds:30}")
+    private double targetDrainSeconds;
+    
+    @Value("${app.kafka.autoscale.scale-up-lag:1000}")
+    private long scaleUpLag;
+    
+    @Value("${app.kafka.autoscale.scale-down-lag:100}")
+    private long scaleDownLag;
+    
+    @Value("${app.kafka.autoscale.scale-down-utilization:0.3}")
+    private double scaleDownUtilization;
+    
+    @Value("${app.kafka.autoscale.stable-intervals:3}")
+    private int stableIntervals;
+    
+    @Value("${app.kafka.autoscale.cooldown-ms:60000}")
+    private long cooldownMs;
+    
+    @Value("${app.kafka.autoscale.partitions.apply:false}")
+    private boolean applyPartitions;
+    
+    @Value("${app.kafka.autoscale.partitions.max:48}")
+    private int maxPartitions;
+    
+    private AdminClient admin;
+    private ScheduledExecutorService scheduler;
+    private final Map<SagaStage, StageState> states = new EnumMap<>(SagaStage.class);
+    
+    @PostConstruct
+    public void init() {
+        admin = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        states.put(SagaStage.VALIDATION, new StageState(SagaStage.VALIDATION, orderPlacedTopic));
+        states.put(SagaStage.INVENTORY, new StageState(SagaStage.INVENTORY, orderValidatedTopic));
+        states.put(SagaStage.PAYMENT, new StageState(SagaStage.PAYMENT, inventoryReservedTopic));
+        states.put(SagaStage.CONFIRMATION, new StageState(SagaStage.CONFIRMATION, paymentProcessedTopic));
+        
+        for (StageState state : states.values()) {
+            String stage = state.stage.getKey();
+            Gauge.builder("order.autoscale.concurrency", state, s -> s.concurrency)
+                .tag("stage", stage)
+                .register(meterRegistry);
+            Gauge.builder("order.autoscale.lag", state, s -> s.lag)
+                .tag("stage", stage)
+                .description("Records behind the log end, summed over the stage topic's partitions")
+                .register(meterRegistry);
+            Gauge.builder("order.autoscale.recommended.partitions", state, s -> s.recommendedPartitions)
+                .tag("stage", stage)
+                .register(meterRegistry);
+            state.scaledUp = meterRegistry.counter("order.autoscale.decisions", "stage", stage, "action", "scale-up");
+            state.scaledDown = meterRegistry.counter("order.autoscale.decisions", "stage", stage, "action", "scale-down");
+            state.repartitioned = meterRegistry.counter("order.autoscale.decisions", "stage", stage, "action", "add-partitions");
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evaluate, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        admin.close();
+    }
+    
+    public void evaluate() {
+        Map<StageState, ConcurrentMessageListenerContainer<?, ?>> running = new LinkedHashMap<>();
+        for (StageState state : states.values()) {
+            ConcurrentMessageListenerContainer<?, ?> container = container(state.stage);
+            if (container != null) {
+                running.put(state, container);
+            }
+        }
+        if (running.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<String> topics = new ArrayList<>();
+            Set<String> groups = new HashSet<>();
+            for (Map.Entry<StageState, ConcurrentMessageListenerContainer<?, ?>> entry : running.entrySet()) {
+                topics.add(entry.getKey().topic);
+                groups.add(entry.getValue().getGroupId());
+            }
+            
+            Map<String, TopicDescription> descriptions =
+                admin.describeTopics(topics).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+            for (TopicDescription description : descriptions.values()) {
+                for (int p = 0; p < description.partitions().size(); p++) {
+                    request.put(new TopicPartition(description.name(), p), OffsetSpec.latest());
+                }
+            }
+            Map<TopicPartition, ListOffsetsResultInfo> logEnds =
+                admin.listOffsets(request).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Map<String, ConsumerGroupDescription> members =
+                admin.describeConsumerGroups(groups).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Map<String, Map<TopicPartition, OffsetAndMetadata>> committed = new HashMap<>();
+            for (String group : groups) {
+                committed.put(group, admin.listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata()
+                    .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            }
+            
+            for (Map.Entry<StageState, ConcurrentMessageListenerContainer<?, ?>> entry : running.entrySet()) {
+                StageState state = entry.getKey();
+                ConcurrentMessageListenerContainer<?, ?> container = entry.getValue();
+                String group = container.getGroupId();
+                observe(state, container, descriptions.get(state.topic).partitions().size(),
+                    logEnds, committed.get(group), members.get(group));
+                decide(state, container);
+            }
+        } catch (Exception e) {
+            logger.warn("Autoscaler could not read consumer lag: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (StageState state : states.values()) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("topic", state.topic);
+            detail.put("concurrency", state.concurrency);
+            detail.put("lag", state.lag);
+            detail.put("recordsPerSecond", Math.round(state.throughput * 10) / 10.0);
+            detail.put("drainSeconds", Double.isInfinite(state.drainSeconds) ? null : Math.round(state.drainSeconds));
+            detail.put("utilization", Math.round(state.utilization * 100) / 100.0);
+            detail.put("partitions", state.partitions);
+            detail.put("recommendedPartitions", state.recommendedPartitions);
+            detail.put("lastDecision", state.lastDecision);
+            detail.put("lastDecisionAt", state.lastDecisionAt);
+            stages.put(state.stage.getKey(), detail);
+        }
+        Map<String, Object> autoscaling = new LinkedHashMap<>();
+        autoscaling.put("minConcurrency", minConcurrency);
+        autoscaling.put("maxConcurrency", maxConcurrency);
+        autoscaling.put("applyPartitions", applyPartitions);
+        autoscaling.put("stages", stages);
+        builder.withDetail("autoscaling", autoscaling);
+    }
+    
+    private void observe(StageState state, ConcurrentMessageListenerContainer<?, ?> container, int partitions,
+                         Map<TopicPartition, ListOffsetsResultInfo> logEnds,
+                         Map<TopicPartition, OffsetAndMetadata> committed, ConsumerGroupDescription group) {
+        long lag = 0;
+        for (int p = 0; p < partitions; p++) {
+            TopicPartition partition = new TopicPartition(state.topic, p);
+            ListOffsetsResultInfo end = logEnds.get(partition);
+            OffsetAndMetadata position = committed == null ? null : committed.get(partition);
+            if (end != null) {
+                lag += Math.max(0, end.offset() - (position == null ? 0 : position.offset()));
+            }
+        }
+        
+        // Consumers of this topic in other instances share the same partitions
+        int consumersOnTopic = 0;
+        if (group != null) {
+            for (MemberDescription member : group.members()) {
+                for (TopicPartition assigned : member.assignment().topicPartitions()) {
+                    if (assigned.topic().equals(state.topic)) {
+                        consumersOnTopic++;
+                        break;
+                    }
+                }
+            }
+        }
+        
+        long now = System.nanoTime();
+        long count = pipelineMetrics.stageCount(state.stage);
+        double busySeconds = pipelineMetrics.stageTotalTime(state.stage, TimeUnit.SECONDS);
+        if (state.observedAt != 0) {
+            double elapsed = (now - state.observedAt) / 1e9;
+            state.throughput = (count - state.count) / elapsed;
+            state.utilization = (busySeconds - state.busySeconds) / (elapsed * container.getConcurrency());
+        }
+        state.observedAt = now;
+        state.count = count;
+        state.busySeconds = busySeconds;
+        
+        state.lag = lag;
+        state.partitions = partitions;
+        state.concurrency = container.getConcurrency();
+        state.otherConsumers = Math.max(0, consumersOnTopic - container.getConcurrency());
+        state.drainSeconds = lag == 0 ? 0 : state.throughput > 0 ? lag / state.throughput : Double.POSITIVE_INFINITY;
+    }
+    
+    private void decide(StageState state, ConcurrentMessageListenerContainer<?, ?> container) throws Exception {
+        int current = state.concurrency;
+        int wanted = wantedConcurrency(state);
+        
+        int partitions = state.partitions;
+        boolean cooledDown = System.currentTimeMillis() - state.changedAt >= cooldownMs;
+        if (!cooledDown) {
+            return;
+        }
+        
+        if (applyPartitions && state.recommendedPartitions > partitions && state.upStreak >= stableIntervals) {
+            admin.createPartitions(Map.of(state.topic, NewPartitions.increaseTo(state.recommendedPartitions)))
+                .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            logger.info("Grew {} from {} to {} partitions for the {} stage",
+                state.topic, partitions, state.recommendedPartitions, state.stage.getKey());
+            state.repartitioned.increment();
+            record(state, "add-partitions " + partitions + " -> " + state.recommendedPartitions);
+            partitions = state.recommendedPartitions;
+        }
+        
+        int target = targetConcurrency(state, wanted, partitions);
+        if (target == current) {
+            return;
+        }
+        if (!drain(container)) {
+            logger.warn("{} stage did not drain within {} ms, staying at {} consumers",
+                state.stage.getKey(), drainTimeoutMs, current);
+            container.resume();
+            return;
+        }
+        logger.info("Scaling {} stage from {} to {} consumers (lag {}, {} records/s, utilization {})",
+            state.stage.getKey(), current, target, state.lag,
+            String.format("%.1f", state.throughput), String.format("%.2f", state.utilization));
+        (target > current ? state.scaledUp : state.scaledDown).increment();
+        record(state, (target > current ? "scale-up " : "scale-down ") + current + " -> " + target);
+        
+        // Concurrency only applies at start, so the container restarts; its partitions rebalance as on any scale event
+        container.stop(() -> {
+            container.setConcurrency(target);
+            container.resume();
+            container.start();
+        });
+    }
+    
+    /**
+     * Updates the stage's streaks from its latest reading and returns the concurrency it should
+     * have, before partition limits. Also sets the recommended partition count.
+     */
+    int wantedConcurrency(StageState state) {
+        int current = state.concurrency;
+        boolean behind = state.lag >= scaleUpLag && state.drainSeconds > targetDrainSeconds;
+        boolean idle = state.lag <= scaleDownLag && state.utilization < scaleDownUtilization;
+        state.upStreak = behind ? state.upStreak + 1 : 0;
+        state.downStreak = idle ? state.downStreak + 1 : 0;
+        
+        int wanted = current;
+        if (state.upStreak >= stableIntervals) {
+            // Enough consumers to clear the backlog within the target, at most doubling per step
+            double factor = Double.isInfinite(state.drainSeconds) ? 2 : state.drainSeconds / targetDrainSeconds;
+            wanted = Math.max(current + 1, Math.min(current * 2, (int) Math.ceil(current * factor)));
+        } else if (state.downStreak >= stableIntervals) {
+            wanted = current - 1;
+        }
+        wanted = Math.max(minConcurrency, Math.min(maxConcurrency, wanted));
+        state.recommendedPartitions = Math.max(state.partitions, Math.min(maxPartitions, wanted + state.otherConsumers));
+        return wanted;
+    }
+    
+    // Consumers past the partition count would get no assignment
+    int targetConcurrency(StageState state, int wanted, int partitions) {
+        return Math.max(minConcurrency, Math.min(wanted, Math.max(1, partitions - state.otherConsumers)));
+    }
+    
+    // Pauses the container and waits until every record it handed out has been acked
+    private boolean drain(ConcurrentMessageListenerContainer<?, ?> container) throws InterruptedException {
+        container.pause();
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            int pending = 0;
+            for (TopicPartition partition : container.getAssignedPartitions()) {
+                pending += ackTracker.pending(partition);
+            }
+            if (pending == 0 && container.isContainerPaused()) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+    
+    private void record(StageState state, String decision) {
+        state.lastDecision = decision;
+        state.lastDecisionAt = Instant.now().toString();
+        state.changedAt = System.currentTimeMillis();
+        state.upStreak = 0;
+        state.downStreak = 0;
+    }
+    
+    // The record-mode container, or the batch one when batch mode is on
+    private ConcurrentMessageListenerContainer<?, ?> container(SagaStage stage) {
+        for (String suffix : new String[] {"-stage", "-batch"}) {
+            MessageListenerContainer container = registry.getListenerContainer(stage.getKey() + suffix);
+            if (container instanceof ConcurrentMessageListenerContainer && container.isRunning()) {
+                return (ConcurrentMessageListenerContainer<?, ?>) container;
+            }
+        }
+        return null;
+    }
+    
+    static class StageState {
+        
+        final SagaStage stage;
+        final String topic;
+        
+        volatile int concurrency;
+        volatile long lag;
+        volatile int partitions;
+        volatile int recommendedPartitions;
+        volatile int otherConsumers;
+        volatile double throughput;
+        volatile double utilization;
+        volatile double drainSeconds;
+        volatile String lastDecision;
+        volatile String lastDecisionAt;
+        
+        long observedAt;
+        long count;
+        double busySeconds;
+        int upStreak;
+        int downStreak;
+        long changedAt;
+        
+        Counter scaledUp;
+        Counter scaledDown;
+        Counter repartitioned;
+        
+        StageState(SagaStage stage, String topic) {
+            this.stage = stage;
+            this.topic = topic;
+        }
+    }
+}
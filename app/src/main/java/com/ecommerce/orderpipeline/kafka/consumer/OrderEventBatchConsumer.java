@@ -0,0 +1,321 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.dto.ReservationResult;
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics.Outcome;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventProducer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.Futures;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Batch-mode counterpart of {@link OrderEventConsumer}, enabled with
+ * {@code app.kafka.consumer.batch-enabled=true}. Each stage handles a whole poll,
+ * persists it in as few statements as it can, and acknowledges once per batch, after the
+ * broker has acknowledged every event the batch produced, failure routing included; if any of
+ * those sends fails, nothing is acknowledged and the batch is redelivered. Records that fail are
+ * routed through {@link OrderFailureHandler} individually and retried one at a time from the
+ * retry topics.
+ *
+ * <p>Validation and confirmation go through {@link OrderService#validateOrders} and
+ * {@link OrderService#confirmOrders}, which queue every status change on
+ * {@code OrderStatusWriter} and flush them as targeted UPDATEs in JDBC batches of up to
+ * {@code app.orders.status-writer.batch-size} rows, each batch committed on its own; if that
+ * fails, each order is written on its own so only the offending ones go down the failure path.
+ * Inventory reserves the batch with one locking query and one batched flush. Payment is the exception: the gateway charges
+ * one order per call, so the charges are only started together, and each charge is recorded as
+ * processed as soon as it succeeds, because holding that back for the batch would widen the
+ * window in which a redelivery charges twice. Starting a charge waits for a bulkhead slot; if
+ * one still cannot be had, the batch is redelivered instead of routing those orders as failed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer.batch-enabled", havingValue = "true")
+public class OrderEventBatchConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventBatchConsumer.class);
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private OrderEventProducer eventProducer;
+    
+    @Autowired
+    private OrderFailureHandler failureHandler;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @KafkaListener(id = "validation-batch", idIsGroup = false,
+                   topics = "${app.kafka.topics.order-placed}",
+                   containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeOrderPlacedBatch(@Payload List<OrderEvent> events, Acknowledgment ack) {
+        long received = System.nanoTime();
+        int records = events.size();
+        logger.info("Received batch of {} OrderPlaced events", events.size());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        events = withOrders(events, SagaStage.VALIDATION, pending);
+        
+        List<OrderEvent> accepted = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            try {
+                orderService.checkOrder(event.getOrder());
+                accepted.add(event);
+            } catch (Exception e) {
+                logger.error("Error processing OrderPlaced event for order: {}", event.getOrderId(), e);
+                pending.add(failureHandler.handleFailure(SagaStage.VALIDATION, event, e.getMessage(), 0));
+            }
+        }
+        
+        List<Order> validatedOrders = saveBatch(accepted, SagaStage.VALIDATION, pending);
+        List<OrderEvent> validatedEvents = new ArrayList<>(validatedOrders.size());
+        for (Order order : validatedOrders) {
+            validatedEvents.add(new OrderEvent(
+                order.getOrderId(),
+                order,
+                OrderStatus.VALIDATED,
+                "Order validation successful",
+                "OrderValidator"
+            ));
+        }
+        pending.add(eventProducer.sendOrderValidatedEvents(validatedEvents));
+        
+        acknowledge(pending, ack);
+        recordStage(SagaStage.VALIDATION, received, records, validatedEvents.size());
+    }
+    
+    @KafkaListener(id = "inventory-batch", idIsGroup = false,
+                   topics = "${app.kafka.topics.order-validated}",
+                   containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeOrderValidatedBatch(@Payload List<OrderEvent> events, Acknowledgment ack) {
+        long received = System.nanoTime();
+        int records = events.size();
+        logger.info("Processing inventory reservation for batch of {} orders", events.size());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        events = withOrders(events, SagaStage.INVENTORY, pending);
+        
+        List<ReservationResult> results = reserveBatch(events);
+        List<OrderEvent> reservedEvents = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OrderEvent event = events.get(i);
+            ReservationResult result = results.get(i);
+            if (result.isSuccess()) {
+                reservedEvents.add(new OrderEvent(
+                    event.getOrderId(),
+                    event.getOrder(),
+                    OrderStatus.INVENTORY_RESERVED,
+                    "Inventory reserved successfully",
+                    "InventoryManager"
+                ));
+            } else {
+                logger.error("Error processing OrderValidated event for order: {}: {}",
+                    event.getOrderId(), result.getFailureReason());
+                pending.add(failureHandler.handleFailure(SagaStage.INVENTORY, event, result.getFailureReason(), 0));
+            }
+        }
+        pending.add(eventProducer.sendInventoryReservedEvents(reservedEvents));
+        
+        acknowledge(pending, ack);
+        recordStage(SagaStage.INVENTORY, received, records, reservedEvents.size());
+    }
+    
+    @KafkaListener(id = "payments-batch", idIsGroup = false,
+                   topics = "${app.kafka.topics.inventory-reserved}",
+                   containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeInventoryReservedBatch(@Payload List<OrderEvent> events, Acknowledgment ack) {
+        long received = System.nanoTime();
+        int records = events.size();
+        logger.info("Processing payment for batch of {} orders", events.size());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        events = withOrders(events, SagaStage.PAYMENT, pending);
+        
+        // Start every charge first so the batch waits for the slowest gateway call, not the sum of them
+        List<CompletableFuture<Boolean>> payments = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            payments.add(paymentService.processPayment(event.getOrder()));
+        }
+        
+        List<OrderEvent> paymentEvents = new ArrayList<>(events.size());
+        RejectedExecutionException saturated = null;
+        for (int i = 0; i < events.size(); i++) {
+            OrderEvent event = events.get(i);
+            try {
+                payments.get(i).join();
+                paymentEvents.add(new OrderEvent(
+                    event.getOrderId(),
+                    event.getOrder(),
+                    OrderStatus.PAYMENT_PROCESSED,
+                    "Payment processed successfully",
+                    "PaymentProcessor"
+                ));
+            } catch (Exception e) {
+                Throwable cause = Futures.unwrap(e);
+                if (cause instanceof RejectedExecutionException) {
+                    saturated = (RejectedExecutionException) cause;
+                    continue;
+                }
+                logger.error("Error processing InventoryReserved event for order: {}", event.getOrderId(), cause);
+                pending.add(failureHandler.handleFailure(SagaStage.PAYMENT, event, cause.getMessage(), 0));
+            }
+        }
+        if (saturated != null) {
+            // Charges that went through are recorded as processed, so the redelivered batch skips them
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+            throw new IllegalStateException("Payment gateway saturated, batch will be redelivered", saturated);
+        }
+        pending.add(eventProducer.sendPaymentProcessedEvents(paymentEvents));
+        
+        acknowledge(pending, ack);
+        recordStage(SagaStage.PAYMENT, received, records, paymentEvents.size());
+    }
+    
+    @KafkaListener(id = "confirmation-batch", idIsGroup = false,
+                   topics = "${app.kafka.topics.payment-processed}",
+                   containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumePaymentProcessedBatch(@Payload List<OrderEvent> events, Acknowledgment ack) {
+        long received = System.nanoTime();
+        int records = events.size();
+        logger.info("Finalizing batch of {} orders", events.size());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        events = withOrders(events, SagaStage.CONFIRMATION, pending);
+        
+        List<Order> confirmedOrders = saveBatch(events, SagaStage.CONFIRMATION, pending);
+        List<OrderEvent> confirmedEvents = new ArrayList<>(confirmedOrders.size());
+        for (Order order : confirmedOrders) {
+            confirmedEvents.add(new OrderEvent(
+                order.getOrderId(),
+                order,
+                OrderStatus.CONFIRMED,
+                "Order confirmed successfully",
+                "OrderCoordinator"
+            ));
+        }
+        pending.add(eventProducer.sendOrderConfirmedEvents(confirmedEvents));
+        
+        acknowledge(pending, ack);
+        recordStage(SagaStage.CONFIRMATION, received, records, confirmedEvents.size());
+        for (OrderEvent confirmedEvent : confirmedEvents) {
+            pipelineMetrics.recordConfirmed(confirmedEvent);
+        }
+    }
+    
+    // Each record of the batch counts once, timed from when the batch arrived
+    private void recordStage(SagaStage stage, long received, int records, int succeeded) {
+        for (int i = 0; i < records; i++) {
+            pipelineMetrics.recordStage(stage, i < succeeded ? Outcome.SUCCESS : Outcome.FAILED, received);
+        }
+    }
+    
+    /**
+     * Waits for every send the batch started before committing its offsets. If any failed,
+     * the exception reaches the container's error handler and the batch is redelivered.
+     */
+    private void acknowledge(List<CompletableFuture<Void>> pending, Acknowledgment ack) {
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        ack.acknowledge();
+    }
+    
+    /**
+     * Attaches the full order to every slim event in one lookup; events whose order
+     * can no longer be found go straight down the failure path.
+     */
+    private List<OrderEvent> withOrders(List<OrderEvent> events, SagaStage stage,
+                                        List<CompletableFuture<Void>> pending) {
+        orderCache.attachOrders(events);
+        List<OrderEvent> resolved = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            if (event.getOrder() != null) {
+                resolved.add(event);
+            } else {
+                pending.add(failureHandler.handleFailure(stage, event, "Order not found: " + event.getOrderId(), 0));
+            }
+        }
+        return resolved;
+    }
+    
+    private List<ReservationResult> reserveBatch(List<OrderEvent> events) {
+        List<Order> orders = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            orders.add(event.getOrder());
+        }
+        
+        try {
+            return inventoryService.reserveInventory(orders);
+        } catch (Exception e) {
+            logger.warn("Bulk reservation of {} orders failed, retrying individually: {}", orders.size(), e.getMessage());
+        }
+        
+        List<ReservationResult> results = new ArrayList<>(events.size());
+        for (Order order : orders) {
+            try {
+                inventoryService.reserveInventory(order);
+                results.add(ReservationResult.success(order.getOrderId()));
+            } catch (Exception e) {
+                results.add(ReservationResult.failure(order.getOrderId(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Saves the batch as one status batch. If that batch fails, falls back to
+     * one write per order so only the offending records go down the failure path.
+     */
+    private List<Order> saveBatch(List<OrderEvent> events, SagaStage stage, List<CompletableFuture<Void>> pending) {
+        boolean validate = stage == SagaStage.VALIDATION;
+        if (events.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Order> orders = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            orders.add(event.getOrder());
+        }
+        
+        try {
+            return validate ? orderService.validateOrders(orders) : orderService.confirmOrders(orders);
+        } catch (Exception e) {
+            logger.warn("Batch save of {} orders failed, retrying individually: {}", orders.size(), e.getMessage());
+        }
+        
+        List<Order> savedOrders = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            try {
+                savedOrders.add(validate
+                    ? orderService.validateOrder(event.getOrder()).join()
+                    : orderService.confirmOrder(event.getOrder()).join());
+            } catch (Exception e) {
+                Throwable cause = Futures.unwrap(e);
+                logger.error("Error saving order: {}", event.getOrderId(), cause);
+                pending.add(failureHandler.handleFailure(stage, event, cause.getMessage(), 0));
+            }
+        }
+        return savedOrders;
+    }
+}
@@ -0,0 +1,579 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics.Call;
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics.Outcome;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventProducer;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.CallbackExecutor;
+import com.ecommerce.orderpipeline.service.Futures;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.PaymentService;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Record-mode saga stages. By default ({@code app.saga.mode=hops}) each stage consumes its own
+ * topic and publishes to the next. With {@code app.saga.mode=fused} the orders.placed listener
+ * runs validation, reservation, payment and confirmation back to back in process and the
+ * intermediate listeners stay stopped; failures still go through the same retry tiers and DLQ,
+ * and a retried stage carries on through the rest of the saga. Once {@code max-in-flight} sagas
+ * are running the orders.placed container is paused, and it resumes when half have finished, so
+ * the consumer thread never blocks and keeps polling within {@code max.poll.interval.ms}.
+ *
+ * <p>A record whose output and failure routing both fail to publish is never dropped: a stage
+ * record is nacked through {@link AckTracker}, which seeks its partition back, and a retry-tier
+ * record is reported to {@link #process}'s caller, which nacks it on the consumer thread.
+ */
+@Component
+public class OrderEventConsumer extends AbstractConsumerSeekAware {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventConsumer.class);
+    
+    // Main-topic listeners stand down in batch mode; the stage logic still serves retry topics
+    private static final String RECORD_MODE = "#{!${app.kafka.consumer.batch-enabled:false}}";
+    
+    // Intermediate topics are only consumed when stages hop through Kafka
+    private static final String HOP_MODE =
+        "#{!${app.kafka.consumer.batch-enabled:false} and '${app.saga.mode:hops}' != 'fused'}";
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private OrderEventProducer eventProducer;
+    
+    @Autowired
+    private OrderFailureHandler failureHandler;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private KeyOrderedDispatcher dispatcher;
+    
+    @Autowired
+    private AckTracker ackTracker;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private ExecutionThreads executionThreads;
+    
+    @Autowired
+    private CallbackExecutor callbackExecutor;
+    
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+    
+    @Value("${app.saga.mode:hops}")
+    private String sagaMode;
+    
+    @Value("${app.kafka.consumer.batch-enabled:false}")
+    private boolean batchEnabled;
+    
+    @Value("${app.saga.fused.audit-events:true}")
+    private boolean auditEvents;
+    
+    @Value("${app.saga.fused.workers:0}")
+    private int fusedWorkers;
+    
+    @Value("${app.saga.fused.max-in-flight:1000}")
+    private int fusedMaxInFlight;
+    
+    private boolean fused;
+    private ExecutorService fusedExecutor;
+    private final AtomicInteger fusedInFlight = new AtomicInteger();
+    private volatile boolean fusedPaused;
+    
+    @PostConstruct
+    public void init() {
+        fused = "fused".equalsIgnoreCase(sagaMode) && !batchEnabled;
+        if (!fused) {
+            return;
+        }
+        int workers = fusedWorkers > 0 ? fusedWorkers : Runtime.getRuntime().availableProcessors();
+        // On virtual threads every order in flight gets its own thread; the semaphore is the bound
+        fusedExecutor = executionThreads.newExecutor("saga-fused-", workers);
+        logger.info("Fused saga mode: {} workers, {} orders in flight, audit events {}",
+            executionThreads.isVirtual() ? "virtual" : workers, fusedMaxInFlight, auditEvents ? "on" : "off");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (fusedExecutor != null) {
+            fusedExecutor.shutdown();
+        }
+    }
+    
+    @KafkaListener(id = "validation-stage", idIsGroup = false,
+                   topics = "${app.kafka.topics.order-placed}",
+                   containerFactory = "stageKafkaListenerContainerFactory", autoStartup = RECORD_MODE)
+    public void consumeOrderPlaced(@Payload OrderEvent event,
+                                   @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                   @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
+                                   @Header(KafkaHeaders.OFFSET) long offset,
+                                   Acknowledgment containerAck) {
+        long received = System.nanoTime();
+        Acknowledgment ack = track(topic, partition, offset, containerAck);
+        if (ack == null) {
+            return;
+        }
+        if (fused) {
+            // Acks arrive only once the whole saga is done, so bound how many run at once
+            dispatcher.dispatch(topic, partition, event.getOrderId(), () -> {
+                if (fusedInFlight.incrementAndGet() >= fusedMaxInFlight) {
+                    throttleFused();
+                }
+                redeliverIfUnacked(runFused(SagaStage.VALIDATION, event, ack, 0).whenComplete((outcome, error) -> {
+                    if (fusedInFlight.decrementAndGet() <= fusedMaxInFlight / 2 && fusedPaused) {
+                        throttleFused();
+                    }
+                }), ack);
+            });
+            return;
+        }
+        dispatcher.dispatch(topic, partition, event.getOrderId(),
+            () -> redeliverIfUnacked(recorded(SagaStage.VALIDATION, received, validateOrder(event, ack, 0)), ack));
+    }
+    
+    @KafkaListener(id = "inventory-stage", idIsGroup = false,
+                   topics = "${app.kafka.topics.order-validated}",
+                   containerFactory = "stageKafkaListenerContainerFactory", autoStartup = HOP_MODE)
+    public void consumeOrderValidated(@Payload OrderEvent event,
+                                      @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                      @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
+                                      @Header(KafkaHeaders.OFFSET) long offset,
+                                      Acknowledgment containerAck) {
+        long received = System.nanoTime();
+        Acknowledgment ack = track(topic, partition, offset, containerAck);
+        if (ack == null) {
+            return;
+        }
+        dispatcher.dispatch(topic, partition, event.getOrderId(),
+            () -> redeliverIfUnacked(recorded(SagaStage.INVENTORY, received, reserveInventory(event, ack, 0)), ack));
+    }
+    
+    // Acked from the payment callback, so payments already overlap without a lane
+    @KafkaListener(id = "payments-stage", idIsGroup = false,
+                   topics = "${app.kafka.topics.inventory-reserved}",
+                   containerFactory = "stageKafkaListenerContainerFactory", autoStartup = HOP_MODE)
+    public void consumeInventoryReserved(@Payload OrderEvent event,
+                                         @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                         @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
+                                         @Header(KafkaHeaders.OFFSET) long offset,
+                                         Acknowledgment containerAck) {
+        Acknowledgment ack = track(topic, partition, offset, containerAck);
+        if (ack == null) {
+            return;
+        }
+        redeliverIfUnacked(recorded(SagaStage.PAYMENT, System.nanoTime(), processPayment(event, ack, 0)), ack);
+    }
+    
+    @KafkaListener(id = "confirmation-stage", idIsGroup = false,
+                   topics = "${app.kafka.topics.payment-processed}",
+                   containerFactory = "stageKafkaListenerContainerFactory", autoStartup = HOP_MODE)
+    public void consumePaymentProcessed(@Payload OrderEvent event,
+                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                        @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
+                                        @Header(KafkaHeaders.OFFSET) long offset,
+                                        Acknowledgment containerAck) {
+        long received = System.nanoTime();
+        Acknowledgment ack = track(topic, partition, offset, containerAck);
+        if (ack == null) {
+            return;
+        }
+        dispatcher.dispatch(topic, partition, event.getOrderId(),
+            () -> redeliverIfUnacked(recorded(SagaStage.CONFIRMATION, received, confirmOrder(event, ack, 0)), ack));
+    }
+    
+    /**
+     * Runs one saga stage for an event re-consumed from a retry topic. {@code attempt} is the
+     * number of times the stage has already failed for this event. In fused mode the rest of the
+     * saga runs from there too, since nothing consumes the intermediate topics. Returns
+     * {@link Outcome#UNACKED} if the record was neither finished nor routed, so the caller must
+     * have it redelivered.
+     */
+    public Outcome process(SagaStage stage, OrderEvent event, Acknowledgment ack, int attempt) {
+        if (fused) {
+            return runFused(stage, event, ack, attempt).join();
+        }
+        long received = System.nanoTime();
+        CompletableFuture<Outcome> outcome;
+        switch (stage) {
+            case VALIDATION:
+                outcome = validateOrder(event, ack, attempt);
+                break;
+            case INVENTORY:
+                outcome = reserveInventory(event, ack, attempt);
+                break;
+            case PAYMENT:
+                outcome = processPayment(event, ack, attempt);
+                break;
+            case CONFIRMATION:
+                outcome = confirmOrder(event, ack, attempt);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown saga stage: " + stage);
+        }
+        // Retry containers ack in order, so wait for asynchronous stages here
+        return recorded(stage, received, outcome).join();
+    }
+    
+    // Acked once the status write has committed (see OrderStatusWriter) and the broker has the next event.
+    // The outcome is handled on the callback executor: failure routing may read and write the database
+    private CompletableFuture<Outcome> validateOrder(OrderEvent event, Acknowledgment ack, int attempt) {
+        try {
+            logger.debug("Received OrderPlaced event for order: {}", event.getOrderId());
+            orderCache.attachOrder(event);
+            
+            // Validate order; revalidating is harmless, so a failed publish retries the whole stage
+            return pipelineMetrics.timeCall(Call.VALIDATE_ORDER, () -> orderService.validateOrder(event.getOrder()))
+                .thenCompose(validatedOrder -> eventProducer.sendOrderValidatedEvent(new OrderEvent(
+                    event.getOrderId(), 
+                    validatedOrder, 
+                    OrderStatus.VALIDATED, 
+                    "Order validation successful", 
+                    "OrderValidator"
+                )))
+                .handleAsync((sent, error) -> error == null
+                    ? acknowledge(ack)
+                    : stageFailed(SagaStage.VALIDATION, "OrderPlaced", event, ack, attempt, error),
+                    callbackExecutor.get())
+                .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return stageFailed(SagaStage.VALIDATION, "OrderPlaced", event, ack, attempt, e);
+        }
+    }
+    
+    private CompletableFuture<Outcome> reserveInventory(OrderEvent event, Acknowledgment ack, int attempt) {
+        OrderEvent reservedEvent;
+        long start = System.nanoTime();
+        try {
+            logger.debug("Processing inventory reservation for order: {}", event.getOrderId());
+            orderCache.attachOrder(event);
+            
+            boolean inventoryReserved = inventoryService.reserveInventory(event.getOrder());
+            if (!inventoryReserved) {
+                throw new RuntimeException("Inventory reservation failed");
+            }
+            pipelineMetrics.recordCall(Call.RESERVE_INVENTORY, true, start);
+            reservedEvent = new OrderEvent(
+                event.getOrderId(), 
+                event.getOrder(), 
+                OrderStatus.INVENTORY_RESERVED, 
+                "Inventory reserved successfully", 
+                "InventoryManager"
+            );
+        } catch (Exception e) {
+            pipelineMetrics.recordCall(Call.RESERVE_INVENTORY, false, start);
+            return stageFailed(SagaStage.INVENTORY, "OrderValidated", event, ack, attempt, e);
+        }
+        return forward(eventProducer.sendInventoryReservedEvent(reservedEvent), SagaStage.PAYMENT, reservedEvent, ack);
+    }
+    
+    private CompletableFuture<Outcome> processPayment(OrderEvent event, Acknowledgment ack, int attempt) {
+        try {
+            logger.debug("Processing payment for order: {}", event.getOrderId());
+            orderCache.attachOrder(event);
+            
+            // Charges complete on the callback executor, never on a gateway thread
+            return pipelineMetrics.timeCall(Call.PROCESS_PAYMENT, () -> paymentService.processPayment(event.getOrder()))
+                .handle((paymentProcessed, error) -> {
+                    if (error != null) {
+                        return saturated(error)
+                            ? deferred(event, error)
+                            : stageFailed(SagaStage.PAYMENT, "InventoryReserved", event, ack, attempt, error);
+                    }
+                    OrderEvent paymentEvent = new OrderEvent(
+                        event.getOrderId(), 
+                        event.getOrder(), 
+                        OrderStatus.PAYMENT_PROCESSED, 
+                        "Payment processed successfully", 
+                        "PaymentProcessor"
+                    );
+                    return forward(eventProducer.sendPaymentProcessedEvent(paymentEvent),
+                        SagaStage.CONFIRMATION, paymentEvent, ack);
+                })
+                .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return stageFailed(SagaStage.PAYMENT, "InventoryReserved", event, ack, attempt, e);
+        }
+    }
+    
+    private CompletableFuture<Outcome> confirmOrder(OrderEvent event, Acknowledgment ack, int attempt) {
+        try {
+            logger.debug("Finalizing order: {}", event.getOrderId());
+            orderCache.attachOrder(event);
+            
+            return pipelineMetrics.timeCall(Call.CONFIRM_ORDER, () -> orderService.confirmOrder(event.getOrder()))
+                .thenCompose(confirmedOrder -> {
+                    OrderEvent confirmedEvent = new OrderEvent(
+                        event.getOrderId(), 
+                        confirmedOrder, 
+                        OrderStatus.CONFIRMED, 
+                        "Order confirmed successfully", 
+                        "OrderCoordinator"
+                    );
+                    return eventProducer.sendOrderConfirmedEvent(confirmedEvent).thenApply(sent -> confirmedEvent);
+                })
+                .handleAsync((confirmedEvent, error) -> {
+                    if (error != null) {
+                        return stageFailed(SagaStage.CONFIRMATION, "PaymentProcessed", event, ack, attempt, error);
+                    }
+                    pipelineMetrics.recordConfirmed(confirmedEvent);
+                    return acknowledge(ack);
+                }, callbackExecutor.get())
+                .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return stageFailed(SagaStage.CONFIRMATION, "PaymentProcessed", event, ack, attempt, e);
+        }
+    }
+    
+    /**
+     * Runs the saga in process from {@code stage} to confirmation. Each stage hands its output
+     * straight to the next; the record is acked once orders.confirmed has it or a failure has
+     * been routed. A failing stage goes to its own retry tier exactly as in hop mode, so
+     * compensation and DLQ handling are unchanged.
+     */
+    private CompletableFuture<Outcome> runFused(SagaStage stage, OrderEvent event, Acknowledgment ack, int attempt) {
+        switch (stage) {
+            case VALIDATION:
+                return fusedValidate(event, ack, attempt);
+            case INVENTORY:
+                return fusedReserve(event, ack, attempt);
+            case PAYMENT:
+                return fusedPay(event, ack, attempt);
+            case CONFIRMATION:
+                return recorded(SagaStage.CONFIRMATION, System.nanoTime(), confirmOrder(event, ack, attempt));
+            default:
+                throw new IllegalArgumentException("Unknown saga stage: " + stage);
+        }
+    }
+    
+    private CompletableFuture<Outcome> fusedValidate(OrderEvent event, Acknowledgment ack, int attempt) {
+        long start = System.nanoTime();
+        try {
+            orderCache.attachOrder(event);
+            
+            // The status write completes on the writer thread; reserve stock on a fused worker instead
+            return pipelineMetrics.timeCall(Call.VALIDATE_ORDER, () -> orderService.validateOrder(event.getOrder()))
+                .handleAsync((validatedOrder, error) -> {
+                    if (error != null) {
+                        return recorded(SagaStage.VALIDATION, start,
+                            stageFailed(SagaStage.VALIDATION, "OrderPlaced", event, ack, attempt, error));
+                    }
+                    pipelineMetrics.recordStage(SagaStage.VALIDATION, Outcome.SUCCESS, start);
+                    OrderEvent validatedEvent = new OrderEvent(
+                        event.getOrderId(),
+                        validatedOrder,
+                        OrderStatus.VALIDATED,
+                        "Order validation successful",
+                        "OrderValidator"
+                    );
+                    audit(eventProducer::sendOrderValidatedEvent, validatedEvent);
+                    return fusedReserve(validatedEvent, ack, 0);
+                }, fusedExecutor)
+                .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return recorded(SagaStage.VALIDATION, start,
+                stageFailed(SagaStage.VALIDATION, "OrderPlaced", event, ack, attempt, e));
+        }
+    }
+    
+    private CompletableFuture<Outcome> fusedReserve(OrderEvent event, Acknowledgment ack, int attempt) {
+        long start = System.nanoTime();
+        OrderEvent reservedEvent;
+        try {
+            orderCache.attachOrder(event);
+            
+            if (!inventoryService.reserveInventory(event.getOrder())) {
+                throw new RuntimeException("Inventory reservation failed");
+            }
+            pipelineMetrics.recordCall(Call.RESERVE_INVENTORY, true, start);
+            reservedEvent = new OrderEvent(
+                event.getOrderId(),
+                event.getOrder(),
+                OrderStatus.INVENTORY_RESERVED,
+                "Inventory reserved successfully",
+                "InventoryManager"
+            );
+        } catch (Exception e) {
+            pipelineMetrics.recordCall(Call.RESERVE_INVENTORY, false, start);
+            return recorded(SagaStage.INVENTORY, start,
+                stageFailed(SagaStage.INVENTORY, "OrderValidated", event, ack, attempt, e));
+        }
+        pipelineMetrics.recordStage(SagaStage.INVENTORY, Outcome.SUCCESS, start);
+        audit(eventProducer::sendInventoryReservedEvent, reservedEvent);
+        return fusedPay(reservedEvent, ack, 0);
+    }
+    
+    private CompletableFuture<Outcome> fusedPay(OrderEvent event, Acknowledgment ack, int attempt) {
+        long start = System.nanoTime();
+        try {
+            orderCache.attachOrder(event);
+            
+            // Confirm on a fused worker, whichever thread completed the charge
+            return pipelineMetrics.timeCall(Call.PROCESS_PAYMENT, () -> paymentService.processPayment(event.getOrder()))
+                .handleAsync((paymentProcessed, error) -> {
+                    if (error != null) {
+                        return recorded(SagaStage.PAYMENT, start, saturated(error)
+                            ? deferred(event, error)
+                            : stageFailed(SagaStage.PAYMENT, "InventoryReserved", event, ack, attempt, error));
+                    }
+                    pipelineMetrics.recordStage(SagaStage.PAYMENT, Outcome.SUCCESS, start);
+                    OrderEvent paymentEvent = new OrderEvent(
+                        event.getOrderId(),
+                        event.getOrder(),
+                        OrderStatus.PAYMENT_PROCESSED,
+                        "Payment processed successfully",
+                        "PaymentProcessor"
+                    );
+                    audit(eventProducer::sendPaymentProcessedEvent, paymentEvent);
+                    long confirming = System.nanoTime();
+                    return recorded(SagaStage.CONFIRMATION, confirming, confirmOrder(paymentEvent, ack, 0));
+                }, fusedExecutor)
+                .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return recorded(SagaStage.PAYMENT, start,
+                stageFailed(SagaStage.PAYMENT, "InventoryReserved", event, ack, attempt, e));
+        }
+    }
+    
+    // Intermediate topics only feed status listeners in fused mode, so nothing waits on these sends
+    private void audit(Function<OrderEvent, CompletableFuture<Void>> send, OrderEvent event) {
+        if (auditEvents) {
+            send.apply(event).whenComplete((sent, error) -> {
+                if (error != null) {
+                    logger.warn("Audit event {} for order {} was not published: {}",
+                        event.getStatus(), event.getOrderId(), Futures.unwrap(error).getMessage());
+                }
+            });
+        }
+    }
+    
+    // Pauses the orders.placed container at the in-flight limit and resumes it at half
+    private synchronized void throttleFused() {
+        int running = fusedInFlight.get();
+        MessageListenerContainer container = registry.getListenerContainer(SagaStage.VALIDATION.getKey() + "-stage");
+        if (container == null) {
+            return;
+        }
+        if (!fusedPaused && running >= fusedMaxInFlight) {
+            fusedPaused = true;
+            container.pause();
+            logger.info("Fused saga paused orders.placed with {} orders in flight", running);
+        } else if (fusedPaused && running <= fusedMaxInFlight / 2) {
+            fusedPaused = false;
+            container.resume();
+            logger.info("Fused saga resumed orders.placed with {} orders in flight", running);
+        }
+    }
+    
+    /**
+     * Acks once the output of a stage with side effects is published. If that publish fails,
+     * the output is handed to the next stage's retry tier rather than running this stage again;
+     * the hand-off is sent from the callback executor, not the producer's network thread.
+     */
+    private CompletableFuture<Outcome> forward(CompletableFuture<Void> send, SagaStage nextStage, OrderEvent output,
+                                               Acknowledgment ack) {
+        return send
+            .handleAsync((sent, error) -> error == null
+                ? CompletableFuture.completedFuture(Outcome.SUCCESS)
+                : failureHandler.handOff(nextStage, output, Futures.unwrap(error).getMessage())
+                    .thenApply(handedOff -> Outcome.HANDED_OFF), callbackExecutor.get())
+            .thenCompose(Function.identity())
+            .handle((outcome, error) -> {
+                if (error == null) {
+                    ack.acknowledge();
+                    return outcome;
+                }
+                logger.error("Order {} will be redelivered, its event could not be published: {}",
+                    output.getOrderId(), Futures.unwrap(error).getMessage());
+                return Outcome.UNACKED;
+            });
+    }
+    
+    private CompletableFuture<Outcome> stageFailed(SagaStage stage, String eventType, OrderEvent event,
+                                                   Acknowledgment ack, int attempt, Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        logger.error("Error processing {} event for order: {}", eventType, event.getOrderId(), cause);
+        return failureHandler.handleFailure(stage, event, cause.getMessage(), attempt)
+            .handle((routed, routingError) -> {
+                if (routingError == null) {
+                    ack.acknowledge();
+                    return Outcome.FAILED;
+                }
+                logger.error("Order {} will be redelivered, its failure could not be published: {}",
+                    event.getOrderId(), Futures.unwrap(routingError).getMessage());
+                return Outcome.UNACKED;
+            });
+    }
+    
+    // A charge the bulkhead never let through is not a payment failure, so it skips the retry tiers
+    private static boolean saturated(Throwable error) {
+        return Futures.unwrap(error) instanceof RejectedExecutionException;
+    }
+    
+    private static CompletableFuture<Outcome> deferred(OrderEvent event, Throwable error) {
+        logger.warn("Order {} will be redelivered, payment gateway is saturated: {}",
+            event.getOrderId(), Futures.unwrap(error).getMessage());
+        return CompletableFuture.completedFuture(Outcome.UNACKED);
+    }
+    
+    // Seeks the partition back so the record is processed again; an unacked record would stall its partition
+    private static void redeliverIfUnacked(CompletableFuture<Outcome> outcome, Acknowledgment ack) {
+        outcome.thenAccept(result -> {
+            if (result == Outcome.UNACKED) {
+                ack.nack(0);
+            }
+        });
+    }
+    
+    private Acknowledgment track(String topic, int partition, long offset, Acknowledgment containerAck) {
+        return ackTracker.track(topic, partition, offset, containerAck,
+            getSeekCallbackFor(new TopicPartition(topic, partition)));
+    }
+    
+    private CompletableFuture<Outcome> recorded(SagaStage stage, long start, CompletableFuture<Outcome> outcome) {
+        return outcome.thenApply(result -> {
+            pipelineMetrics.recordStage(stage, result, start);
+            return result;
+        });
+    }
+    
+    private static CompletableFuture<Outcome> acknowledge(Acknowledgment ack) {
+        ack.acknowledge();
+        return CompletableFuture.completedFuture(Outcome.SUCCESS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventProducer;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTier;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTopics;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class OrderFailureHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderFailureHandler.class);
+    
+    @Autowired
+    private OrderEventProducer eventProducer;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private RetryTopics retryTopics;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    /**
+     * Parks a failed event on the stage's next retry tier, or cancels the order and moves it
+     * to the DLQ once {@code attempt} (failures so far, excluding this one) has used every tier.
+     * Completes once the failure is durably published, or exceptionally if it could not be.
+     */
+    public CompletableFuture<Void> handleFailure(SagaStage stage, OrderEvent event, String errorMessage, int attempt) {
+        try {
+            List<RetryTier> tiers = retryTopics.getTiers(stage);
+            if (attempt < tiers.size()) {
+                RetryTier tier = tiers.get(attempt);
+                return eventProducer.sendToRetryTopic(tier.getTopic(), event).thenRun(() -> {
+                    pipelineMetrics.recordRetry(stage, attempt);
+                    logger.warn("Order {} parked on {} after {} failure(s): {}",
+                        event.getOrderId(), tier.getTopic(), attempt + 1, errorMessage);
+                });
+            }
+            
+            pipelineMetrics.recordDeadLetter(stage);
+            try {
+                orderCache.attachOrder(event);
+            } catch (Exception e) {
+                // Without the order there is nothing to compensate, so park the slim event as is
+                logger.warn("Order {} moved to DLQ, order not found: {}", event.getOrderId(), e.getMessage());
+                return eventProducer.sendToDLQ(event);
+            }
+            
+            event.getOrder().setFailureReason(errorMessage);
+            event.getOrder().setRetryCount(attempt);
+            
+            // Compensate only once retries are exhausted; an earlier release could be undone by a later success
+            if (stage == SagaStage.PAYMENT) {
+                inventoryService.releaseInventory(event.getOrder());
+            }
+            
+            OrderEvent failedEvent = new OrderEvent(
+                event.getOrderId(),
+                event.getOrder(),
+                OrderStatus.CANCELLED,
+                "Order processing failed: " + errorMessage,
+                "ErrorHandler"
+            );
+            logger.warn("Order {} moved to DLQ after {} retries", event.getOrderId(), attempt);
+            return CompletableFuture.allOf(
+                eventProducer.sendOrderFailedEvent(failedEvent),
+                eventProducer.sendToDLQ(failedEvent));
+        } catch (Exception e) {
+            logger.error("Error handling failure for order: {}", event.getOrderId(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Called when a stage did its work but its output event could not be published. The output
+     * goes to the first retry tier of the stage that consumes it, so the work (a stock
+     * reservation, a charge) is not repeated.
+     */
+    public CompletableFuture<Void> handOff(SagaStage nextStage, OrderEvent output, String errorMessage) {
+        List<RetryTier> tiers = retryTopics.getTiers(nextStage);
+        if (tiers.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException(
+                "No retry tier to hand order " + output.getOrderId() + " to: " + errorMessage));
+        }
+        String topic = tiers.get(0).getTopic();
+        return eventProducer.sendToRetryTopic(topic, output).thenRun(() ->
+            logger.warn("Order {} handed to {} after its event could not be published: {}",
+                output.getOrderId(), topic, errorMessage));
+    }
+}
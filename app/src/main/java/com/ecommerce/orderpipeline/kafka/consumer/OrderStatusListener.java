@@ -0,0 +1,41 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.service.OrderStatusReadModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link OrderStatusReadModel} from every status-bearing topic. Each instance assigns
+ * itself every partition of those topics instead of joining a consumer group, so every
+ * instance's read model sees every change without a group per instance, and a restart creates
+ * nothing on the broker. It starts at the log end and never acks, so nothing is committed under
+ * the fixed group ID; after a restart the read model refills from misses.
+ */
+@Component
+public class OrderStatusListener {
+    
+    // Every status topic is created with app.kafka.topics.partitions partitions (see KafkaConfig)
+    private static final String ALL_PARTITIONS = "#{'0-' + (${app.kafka.topics.partitions:3} - 1)}";
+    
+    @Autowired
+    private OrderStatusReadModel readModel;
+    
+    @KafkaListener(
+        topicPartitions = {
+            @TopicPartition(topic = "${app.kafka.topics.order-placed}", partitions = ALL_PARTITIONS),
+            @TopicPartition(topic = "${app.kafka.topics.order-validated}", partitions = ALL_PARTITIONS),
+            @TopicPartition(topic = "${app.kafka.topics.inventory-reserved}", partitions = ALL_PARTITIONS),
+            @TopicPartition(topic = "${app.kafka.topics.payment-processed}", partitions = ALL_PARTITIONS),
+            @TopicPartition(topic = "${app.kafka.topics.order-confirmed}", partitions = ALL_PARTITIONS),
+            @TopicPartition(topic = "${app.kafka.topics.order-failed}", partitions = ALL_PARTITIONS)
+        },
+        groupId = "${spring.application.name}-status",
+        properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void consumeStatusEvent(@Payload OrderEvent event) {
+        readModel.apply(event);
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTier;
+import com.ecommerce.orderpipeline.kafka.retry.RetryTopics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Saga metrics. Every meter is registered up front for each stage, call and outcome, so
+ * recording on the hot path is an array lookup and a clock read, with no tag building.
+ *
+ * <ul>
+ *   <li>{@code order.pipeline.stage{stage,outcome}}: time from receiving a record to acking it</li>
+ *   <li>{@code order.pipeline.call{call,outcome}}: time spent in each service call a stage makes</li>
+ *   <li>{@code order.pipeline.retries{stage,topic}} and {@code order.pipeline.dlq{stage}}</li>
+ *   <li>{@code order.pipeline.end-to-end}: placed-to-confirmed latency histogram</li>
+ * </ul>
+ */
+@Component
+public class PipelineMetrics {
+    
+    public enum Outcome {
+        SUCCESS,
+        // Routed to a retry tier or the DLQ
+        FAILED,
+        // Work done, but the output went to the next stage's retry tier
+        HANDED_OFF,
+        // Nothing could be published; the record is left for redelivery
+        UNACKED;
+        
+        final String tag = name().toLowerCase().replace('_', '-');
+    }
+    
+    public enum Call {
+        VALIDATE_ORDER("validateOrder"),
+        RESERVE_INVENTORY("reserveInventory"),
+        PROCESS_PAYMENT("processPayment"),
+        CONFIRM_ORDER("confirmOrder");
+        
+        final String tag;
+        
+        Call(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private RetryTopics retryTopics;
+    
+    private final Map<SagaStage, Timer[]> stageTimers = new EnumMap<>(SagaStage.class);
+    private final Map<Call, Timer[]> callTimers = new EnumMap<>(Call.class);
+    private final Map<SagaStage, Counter[]> retryCounters = new EnumMap<>(SagaStage.class);
+    private final Map<SagaStage, Counter> dlqCounters = new EnumMap<>(SagaStage.class);
+    private Timer endToEnd;
+    
+    @PostConstruct
+    public void init() {
+        for (SagaStage stage : SagaStage.values()) {
+            Timer[] timers = new Timer[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                timers[outcome.ordinal()] = Timer.builder("order.pipeline.stage")
+                    .tag("stage", stage.getKey())
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry);
+            }
+            stageTimers.put(stage, timers);
+            
+            List<RetryTier> tiers = retryTopics.getTiers(stage);
+            Counter[] retries = new Counter[tiers.size()];
+            for (int i = 0; i < retries.length; i++) {
+                retries[i] = meterRegistry.counter("order.pipeline.retries",
+                    "stage", stage.getKey(), "topic", tiers.get(i).getTopic());
+            }
+            retryCounters.put(stage, retries);
+            dlqCounters.put(stage, meterRegistry.counter("order.pipeline.dlq", "stage", stage.getKey()));
+        }
+        
+        for (Call call : Call.values()) {
+            callTimers.put(call, new Timer[] {
+                Timer.builder("order.pipeline.call").tag("call", call.tag).tag("outcome", "success")
+                    .register(meterRegistry),
+                Timer.builder("order.pipeline.call").tag("call", call.tag).tag("outcome", "failure")
+                    .register(meterRegistry)
+            });
+        }
+        
+        endToEnd = Timer.builder("order.pipeline.end-to-end")
+            .description("Time from order placement to the CONFIRMED event")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(10))
+            .maximumExpectedValue(Duration.ofMinutes(10))
+            .register(meterRegistry);
+    }
+    
+    public void recordStage(SagaStage stage, Outcome outcome, long startNanos) {
+        stageTimers.get(stage)[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordCall(Call call, boolean success, long startNanos) {
+        callTimers.get(call)[success ? 0 : 1].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Times an asynchronous service call until its future completes, including any synchronous
+     * work (and exception) before the future is returned.
+     */
+    public <T> CompletableFuture<T> timeCall(Call call, Supplier<CompletableFuture<T>> invocation) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = invocation.get();
+        } catch (RuntimeException e) {
+            recordCall(call, false, start);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> recordCall(call, error == null, start));
+    }
+    
+    /**
+     * Records handled by the stage so far, and the time spent on them, across all outcomes.
+     * Both are cumulative; {@link ListenerAutoscaler} and admission control work on the
+     * difference between reads.
+     */
+    public long stageCount(SagaStage stage) {
+        long count = 0;
+        for (Timer timer : stageTimers.get(stage)) {
+            count += timer.count();
+        }
+        return count;
+    }
+    
+    public double stageTotalTime(SagaStage stage, TimeUnit unit) {
+        double total = 0;
+        for (Timer timer : stageTimers.get(stage)) {
+            total += timer.totalTime(unit);
+        }
+        return total;
+    }
+    
+    public void recordRetry(SagaStage stage, int tier) {
+        retryCounters.get(stage)[tier].increment();
+    }
+    
+    public void recordDeadLetter(SagaStage stage) {
+        dlqCounters.get(stage).increment();
+    }
+    
+    public void recordConfirmed(OrderEvent confirmedEvent) {
+        if (confirmedEvent.getPlacedAt() != null) {
+            endToEnd.record(confirmedEvent.getTimestamp() - confirmedEvent.getPlacedAt(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
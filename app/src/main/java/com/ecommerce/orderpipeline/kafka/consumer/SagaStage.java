@@ -0,0 +1,18 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+public enum SagaStage {
+    VALIDATION("validation"),
+    INVENTORY("inventory"),
+    PAYMENT("payments"),
+    CONFIRMATION("confirmation");
+    
+    private final String key;
+    
+    SagaStage(String key) {
+        this.key = key;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+}
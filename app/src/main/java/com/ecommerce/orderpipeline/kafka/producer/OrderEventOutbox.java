@@ -0,0 +1,62 @@
+package com.ecommerce.orderpipeline.kafka.producer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.OutboxEvent;
+import com.ecommerce.orderpipeline.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox for events that originate outside Kafka (order placement). Events are
+ * written in the caller's transaction, so they exist exactly when the order does;
+ * {@link OutboxRelay} publishes them afterwards.
+ */
+@Component
+public class OrderEventOutbox {
+    
+    @Autowired
+    private OutboxRepository outboxRepository;
+    
+    @Autowired
+    private OrderEventProducer eventProducer;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.kafka.topics.order-placed}")
+    private String orderPlacedTopic;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(OrderEvent event) {
+        outboxRepository.save(toOutboxEvent(orderPlacedTopic, event));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPlaced(List<OrderEvent> events) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            outboxEvents.add(toOutboxEvent(orderPlacedTopic, event));
+        }
+        outboxRepository.saveAll(outboxEvents);
+    }
+    
+    private OutboxEvent toOutboxEvent(String topic, OrderEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(topic);
+        outboxEvent.setMessageKey(event.getOrderId());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(eventProducer.slim(event)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event for order: " + event.getOrderId(), e);
+        }
+        return outboxEvent;
+    }
+}
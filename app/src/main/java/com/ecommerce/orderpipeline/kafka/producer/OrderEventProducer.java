@@ -0,0 +1,239 @@
+package com.ecommerce.orderpipeline.kafka.producer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.service.Futures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes order events. Every send returns a future that completes once the broker has
+ * acknowledged the record, so callers can commit offsets (or delete outbox rows) only after
+ * their output is durable. At most {@code app.kafka.producer.max-in-flight} records are
+ * unacknowledged at a time. Beyond that a send waits up to {@code max-block-ms} for a slot, which
+ * slows the calling consumer, lane or callback down rather than failing its record; only a send
+ * that still finds no slot fails. The producer's I/O thread frees the slots, so it never waits.
+ */
+@Component
+public class OrderEventProducer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventProducer.class);
+    
+    // Waiting for a slot on this thread would wait for itself: it completes the sends that free them
+    private static final String PRODUCER_THREAD_PREFIX = "kafka-producer-network-thread";
+    
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.kafka.topics.order-validated}")
+    private String orderValidatedTopic;
+    
+    @Value("${app.kafka.topics.inventory-reserved}")
+    private String inventoryReservedTopic;
+    
+    @Value("${app.kafka.topics.payment-processed}")
+    private String paymentProcessedTopic;
+    
+    @Value("${app.kafka.topics.order-confirmed}")
+    private String orderConfirmedTopic;
+    
+    @Value("${app.kafka.topics.order-failed}")
+    private String orderFailedTopic;
+    
+    @Value("${app.kafka.topics.dlq-orders}")
+    private String dlqOrdersTopic;
+    
+    @Value("${app.kafka.events.slim-enabled:true}")
+    private boolean slimEventsEnabled;
+    
+    @Value("${app.kafka.producer.max-in-flight:10000}")
+    private int maxInFlight;
+    
+    @Value("${app.kafka.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+    
+    private Semaphore inFlight;
+    private final Map<String, TopicMetrics> topicMetrics = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        inFlight = new Semaphore(maxInFlight);
+        Gauge.builder("order.producer.in-flight", () -> maxInFlight - inFlight.availablePermits())
+            .description("Records sent but not yet acknowledged by the broker")
+            .register(meterRegistry);
+    }
+    
+    public CompletableFuture<Void> sendOrderValidatedEvent(OrderEvent event) {
+        return send(orderValidatedTopic, slim(event));
+    }
+    
+    public CompletableFuture<Void> sendInventoryReservedEvent(OrderEvent event) {
+        return send(inventoryReservedTopic, slim(event));
+    }
+    
+    public CompletableFuture<Void> sendPaymentProcessedEvent(OrderEvent event) {
+        return send(paymentProcessedTopic, slim(event));
+    }
+    
+    public CompletableFuture<Void> sendOrderConfirmedEvent(OrderEvent event) {
+        return send(orderConfirmedTopic, event);
+    }
+    
+    public CompletableFuture<Void> sendOrderFailedEvent(OrderEvent event) {
+        return send(orderFailedTopic, event);
+    }
+    
+    public CompletableFuture<Void> sendToDLQ(OrderEvent event) {
+        return send(dlqOrdersTopic, event);
+    }
+    
+    // Keyed by orderId like the stage topics, so retries of one order stay in order
+    public CompletableFuture<Void> sendToRetryTopic(String topic, OrderEvent event) {
+        return send(topic, slim(event));
+    }
+    
+    public CompletableFuture<Void> sendOrderValidatedEvents(List<OrderEvent> events) {
+        return sendAll(orderValidatedTopic, slim(events));
+    }
+    
+    public CompletableFuture<Void> sendInventoryReservedEvents(List<OrderEvent> events) {
+        return sendAll(inventoryReservedTopic, slim(events));
+    }
+    
+    public CompletableFuture<Void> sendPaymentProcessedEvents(List<OrderEvent> events) {
+        return sendAll(paymentProcessedTopic, slim(events));
+    }
+    
+    public CompletableFuture<Void> sendOrderConfirmedEvents(List<OrderEvent> events) {
+        return sendAll(orderConfirmedTopic, events);
+    }
+    
+    /**
+     * Sends every event keyed by its orderId. Completes once the broker has acknowledged all
+     * of them, or exceptionally if any send failed.
+     */
+    public CompletableFuture<Void> sendAll(String topic, List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        metrics(topic).batchSize.record(events.size());
+        
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            sends[i] = send(topic, events.get(i));
+        }
+        return CompletableFuture.allOf(sends);
+    }
+    
+    public CompletableFuture<Void> send(String topic, OrderEvent event) {
+        return sendMessage(topic, event.getOrderId(), event);
+    }
+    
+    // Stage-to-stage topics only need the status transition; confirmed, failed and DLQ keep the full order
+    OrderEvent slim(OrderEvent event) {
+        return slimEventsEnabled ? event.withoutOrder() : event;
+    }
+    
+    private List<OrderEvent> slim(List<OrderEvent> events) {
+        if (!slimEventsEnabled) {
+            return events;
+        }
+        List<OrderEvent> slimEvents = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            slimEvents.add(event.withoutOrder());
+        }
+        return slimEvents;
+    }
+    
+    private CompletableFuture<Void> sendMessage(String topic, String key, Object message) {
+        TopicMetrics metrics = metrics(topic);
+        if (!acquireSlot()) {
+            metrics.errors.increment();
+            return CompletableFuture.failedFuture(new RuntimeException(
+                "Producer backpressure: " + maxInFlight + " records still unacknowledged after "
+                    + maxBlockMs + "ms on send to " + topic));
+        }
+        
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, message).completable();
+        } catch (Exception e) {
+            inFlight.release();
+            metrics.errors.increment();
+            logger.error("Unable to send message to topic: {} with key: {}, error: {}", topic, key, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return future.<Void>handle((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                metrics.errors.increment();
+                logger.error("Unable to send message to topic: {} with key: {}, error: {}",
+                    topic, key, error.getMessage());
+                throw new CompletionException(Futures.unwrap(error));
+            }
+            metrics.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        });
+    }
+    
+    private boolean acquireSlot() {
+        if (inFlight.tryAcquire()) {
+            return true;
+        }
+        if (Thread.currentThread().getName().startsWith(PRODUCER_THREAD_PREFIX)) {
+            return false;
+        }
+        try {
+            return inFlight.tryAcquire(maxBlockMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private TopicMetrics metrics(String topic) {
+        return topicMetrics.computeIfAbsent(topic, t -> new TopicMetrics(meterRegistry, t));
+    }
+    
+    private static class TopicMetrics {
+        
+        final Timer latency;
+        final DistributionSummary batchSize;
+        final Counter errors;
+        
+        TopicMetrics(MeterRegistry registry, String topic) {
+            latency = Timer.builder("order.producer.send.latency")
+                .tag("topic", topic)
+                .description("Time from send to broker acknowledgement")
+                .register(registry);
+            batchSize = DistributionSummary.builder("order.producer.batch.size")
+                .tag("topic", topic)
+                .register(registry);
+            errors = registry.counter("order.producer.send.errors", "topic", topic);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.orderpipeline.kafka.producer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.OutboxEvent;
+import com.ecommerce.orderpipeline.repository.OutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox in large batches on a thread of its own. A batch is claimed in a short
+ * transaction: the rows are selected with FOR UPDATE SKIP LOCKED (given a dialect that renders
+ * it, see {@link OutboxRepository#claimBatch}) and leased for {@code claim-lease-ms}, so several
+ * instances can relay side by side without double-claiming.
+ * The batch is published with no transaction or row lock held, then deleted. If publishing
+ * fails the lease is released and the rows are retried on the next run; if the instance dies
+ * they are picked up once the lease runs out (at-least-once).
+ */
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    @Autowired
+    private OutboxRepository outboxRepository;
+    
+    @Autowired
+    private OrderEventProducer eventProducer;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    
+    @Value("${app.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+    
+    @Value("${app.outbox.relay-interval-ms:100}")
+    private long relayIntervalMs;
+    
+    private ScheduledExecutorService relayThread;
+    
+    private Timer relayLag;
+    private DistributionSummary relayBatchSize;
+    private Counter relayFailures;
+    
+    @PostConstruct
+    public void init() {
+        relayLag = Timer.builder("order.outbox.relay.lag")
+                .description("Time from outbox insert to publish")
+                .register(meterRegistry);
+        relayBatchSize = DistributionSummary.builder("order.outbox.relay.batch.size")
+                .register(meterRegistry);
+        relayFailures = meterRegistry.counter("order.outbox.relay.failures");
+        
+        // Not on the shared scheduler: draining a backlog would hold up every other @Scheduled task
+        relayThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relayThread.scheduleWithFixedDelay(this::relay, relayIntervalMs, relayIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        relayThread.shutdown();
+        relayThread.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public void relay() {
+        try {
+            while (relayBatch() == batchSize) {
+                // Keep draining while there is a backlog
+            }
+        } catch (Exception e) {
+            relayFailures.increment();
+            logger.error("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Publishes one claimed batch and returns how many rows it held.
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimed = outboxRepository.claimBatch(now, PageRequest.of(0, batchSize));
+            if (!claimed.isEmpty()) {
+                outboxRepository.lease(ids(claimed), now.plus(Duration.ofMillis(claimLeaseMs)));
+            }
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> ids = ids(batch);
+        try {
+            List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent outboxEvent : batch) {
+                OrderEvent event = readEvent(outboxEvent);
+                if (event != null) {
+                    sends.add(eventProducer.send(outboxEvent.getTopic(), event));
+                }
+            }
+            awaitAll(sends);
+        } catch (RuntimeException e) {
+            // Hand the rows back now rather than leave them to the lease
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.release(ids));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByIdIn(ids));
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent outboxEvent : batch) {
+            relayLag.record(Duration.between(outboxEvent.getCreatedAt(), now));
+        }
+        relayBatchSize.record(batch.size());
+        return batch.size();
+    }
+    
+    private static List<Long> ids(List<OutboxEvent> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            ids.add(outboxEvent.getId());
+        }
+        return ids;
+    }
+    
+    private OrderEvent readEvent(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), OrderEvent.class);
+        } catch (Exception e) {
+            // Retrying can't fix an unreadable row, so drop it rather than block the outbox
+            logger.error("Dropping unreadable outbox event {} for key {}: {}",
+                outboxEvent.getId(), outboxEvent.getMessageKey(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private void awaitAll(List<CompletableFuture<Void>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing outbox batch", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to publish outbox batch: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.orderpipeline.kafka.retry;
+
+import com.ecommerce.orderpipeline.kafka.consumer.SagaStage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One delayed retry topic of a saga stage. {@code index} is zero-based, so an event read
+ * from this tier has already failed {@code index + 1} times.
+ */
+@Data
+@AllArgsConstructor
+public class RetryTier {
+    
+    private SagaStage stage;
+    private int index;
+    private String topic;
+    private long delayMs;
+}
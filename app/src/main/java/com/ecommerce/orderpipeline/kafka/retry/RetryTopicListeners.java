@@ -0,0 +1,96 @@
+package com.ecommerce.orderpipeline.kafka.retry;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.consumer.OrderEventConsumer;
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics.Outcome;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes the retry topics, one container per tier so a long tier never holds up a short one.
+ * A record that is not yet due is nacked, which seeks back to it and pauses only that
+ * container until the delay has passed; the main stage topics keep flowing meanwhile. A record
+ * that could be neither finished nor routed onwards is nacked the same way, so the next record's
+ * ack cannot commit past it.
+ */
+@Component
+public class RetryTopicListeners implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RetryTopicListeners.class);
+    
+    // Wake up at least this often so a nack never gets near max.poll.interval.ms
+    private static final long MAX_PAUSE_MS = 30000;
+    
+    // Gives a saturated producer time to drain before an unpublished record is tried again
+    private static final long UNACKED_PAUSE_MS = 1000;
+    
+    @Autowired
+    private RetryTopics retryTopics;
+    
+    @Autowired
+    private OrderEventConsumer orderEventConsumer;
+    
+    @Autowired
+    @Qualifier("kafkaListenerContainerFactory")
+    private ConcurrentKafkaListenerContainerFactory<?, ?> containerFactory;
+    
+    private final List<ConcurrentMessageListenerContainer<?, ?>> containers = new ArrayList<>();
+    
+    private volatile boolean running;
+    
+    @Override
+    public void start() {
+        for (RetryTier tier : retryTopics.getAllTiers()) {
+            ConcurrentMessageListenerContainer<?, ?> container = containerFactory.createContainer(tier.getTopic());
+            container.setBeanName("retry-" + tier.getTopic());
+            container.setupMessageListener(
+                (AcknowledgingMessageListener<String, OrderEvent>) (record, ack) -> onRetry(tier, record, ack));
+            container.start();
+            containers.add(container);
+        }
+        running = true;
+        logger.info("Started {} retry topic listeners", containers.size());
+    }
+    
+    @Override
+    public void stop() {
+        for (ConcurrentMessageListenerContainer<?, ?> container : containers) {
+            container.stop();
+        }
+        containers.clear();
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void onRetry(RetryTier tier, ConsumerRecord<String, OrderEvent> record, Acknowledgment ack) {
+        long wait = record.timestamp() + tier.getDelayMs() - System.currentTimeMillis();
+        if (wait > 0) {
+            ack.nack(Math.min(wait, MAX_PAUSE_MS));
+            return;
+        }
+        
+        logger.info("Retrying {} stage for order: {} (attempt {})",
+            tier.getStage().getKey(), record.key(), tier.getIndex() + 2);
+        Outcome outcome = orderEventConsumer.process(tier.getStage(), record.value(), ack, tier.getIndex() + 1);
+        if (outcome == Outcome.UNACKED) {
+            // Nothing was published for it, so read it again instead of letting the next ack skip it
+            ack.nack(UNACKED_PAUSE_MS);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.orderpipeline.kafka.retry;
+
+import com.ecommerce.orderpipeline.kafka.consumer.SagaStage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retry tiers per saga stage, built from {@code app.retry.<stage>.delays}. Each delay gets its
+ * own topic, e.g. {@code payments.retry.5s}; an empty list sends failures straight to the DLQ.
+ */
+@Component
+public class RetryTopics {
+    
+    @Value("${app.retry.validation.delays:5000,30000}")
+    private long[] validationDelays;
+    
+    @Value("${app.retry.inventory.delays:5000,30000}")
+    private long[] inventoryDelays;
+    
+    @Value("${app.retry.payments.delays:5000,30000}")
+    private long[] paymentDelays;
+    
+    @Value("${app.retry.confirmation.delays:5000,30000}")
+    private long[] confirmationDelays;
+    
+    private final Map<SagaStage, List<RetryTier>> tiers = new EnumMap<>(SagaStage.class);
+    
+    @PostConstruct
+    public void init() {
+        tiers.put(SagaStage.VALIDATION, buildTiers(SagaStage.VALIDATION, validationDelays));
+        tiers.put(SagaStage.INVENTORY, buildTiers(SagaStage.INVENTORY, inventoryDelays));
+        tiers.put(SagaStage.PAYMENT, buildTiers(SagaStage.PAYMENT, paymentDelays));
+        tiers.put(SagaStage.CONFIRMATION, buildTiers(SagaStage.CONFIRMATION, confirmationDelays));
+    }
+    
+    public List<RetryTier> getTiers(SagaStage stage) {
+        return tiers.get(stage);
+    }
+    
+    public List<RetryTier> getAllTiers() {
+        List<RetryTier> all = new ArrayList<>();
+        for (List<RetryTier> stageTiers : tiers.values()) {
+            all.addAll(stageTiers);
+        }
+        return all;
+    }
+    
+    static String topicName(SagaStage stage, long delayMs) {
+        return stage.getKey() + ".retry." + formatDelay(delayMs);
+    }
+    
+    private static List<RetryTier> buildTiers(SagaStage stage, long[] delays) {
+        List<RetryTier> stageTiers = new ArrayList<>(delays.length);
+        Set<String> topics = new HashSet<>();
+        for (int i = 0; i < delays.length; i++) {
+            if (delays[i] <= 0) {
+                throw new IllegalArgumentException("Retry delays for stage " + stage.getKey() + " must be positive");
+            }
+            String topic = topicName(stage, delays[i]);
+            if (!topics.add(topic)) {
+                throw new IllegalArgumentException("Duplicate retry delay for stage " + stage.getKey() + ": " + topic);
+            }
+            stageTiers.add(new RetryTier(stage, i, topic, delays[i]));
+        }
+        return Collections.unmodifiableList(stageTiers);
+    }
+    
+    private static String formatDelay(long delayMs) {
+        if (delayMs % 3_600_000 == 0) {
+            return delayMs / 3_600_000 + "h";
+        }
+        if (delayMs % 60_000 == 0) {
+            return delayMs / 60_000 + "m";
+        }
+        if (delayMs % 1000 == 0) {
+            return delayMs / 1000 + "s";
+        }
+        return delayMs + "ms";
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.IntFunction;
+
+/**
+ * Cursor over a byte array written by {@link BinaryWriter}.
+ */
+final class BinaryReader {
+    
+    private final byte[] buffer;
+    private int position;
+    
+    BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+    
+    int readByte() {
+        return buffer[position++] & 0xFF;
+    }
+    
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed varint at offset " + position);
+            }
+        }
+    }
+    
+    Long readNullableLong() {
+        long encoded = readVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        long zigZag = encoded - 1;
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+    
+    Integer readNullableInt() {
+        Long value = readNullableLong();
+        return value == null ? null : value.intValue();
+    }
+    
+    Double readNullableDouble() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+    
+    LocalDateTime readNullableDateTime() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long epochSecond = readVarLong();
+        int nano = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+    
+    <E extends Enum<E>> E readNullableEnum(IntFunction<E> byCode) {
+        int encoded = (int) readVarLong();
+        return encoded == 0 ? null : byCode.apply(encoded);
+    }
+    
+    String readNullableString() {
+        int encoded = (int) readVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        int length = encoded - 1;
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Growable byte buffer with the primitive encodings used by {@link OrderEventCodec}.
+ * Instances are reused per thread, so {@link #reset()} must be called before each message.
+ */
+final class BinaryWriter {
+    
+    private byte[] buffer;
+    private int position;
+    
+    BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+    
+    void reset() {
+        position = 0;
+    }
+    
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+    
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+    
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+    
+    // Zig-zag + 1 so that 0 can mark null and small negatives stay short
+    void writeNullableLong(Long value) {
+        writeVarLong(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+    }
+    
+    void writeNullableInt(Integer value) {
+        writeNullableLong(value == null ? null : value.longValue());
+    }
+    
+    void writeNullableDouble(Double value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        ensureCapacity(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+    
+    void writeNullableDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(value.getNano());
+    }
+    
+    /**
+     * Writes the constant's code (0 = null). Codes must be positive and stable; ordinals are
+     * neither, since they change when constants are reordered.
+     */
+    <E extends Enum<E>> void writeNullableEnum(E value, ToIntFunction<E> code) {
+        writeVarLong(value == null ? 0 : code.applyAsInt(value));
+    }
+    
+    int capacity() {
+        return buffer.length;
+    }
+    
+    /**
+     * Writes byte length + 1 (0 = null) followed by UTF-8 bytes. ASCII strings, which is
+     * nearly every id and status here, are copied char by char without an intermediate array.
+     */
+    void writeNullableString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            writeVarLong(length + 1);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
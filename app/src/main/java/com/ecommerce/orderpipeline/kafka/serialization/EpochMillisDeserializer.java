@@ -0,0 +1,29 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Reads an epoch-millis timestamp, also accepting the local date-time form that events carried
+ * before, so JSON records already on the topics stay readable.
+ */
+public class EpochMillisDeserializer extends JsonDeserializer<Long> {
+    
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        return toEpochMillis(context.readValue(parser, LocalDateTime.class));
+    }
+    
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written binary encoding for {@link OrderEvent} and its nested {@link Order}.
+ *
+ * <p>Layout: a {@link #MAGIC} byte, a schema version byte, then every field in declaration
+ * order using varints, length-prefixed UTF-8 and epoch-second timestamps. A JSON payload can
+ * never start with the magic byte, which is how {@link OrderEventDeserializer} tells the two apart.
+ * Adding, removing or reordering fields needs a new version. {@link OrderStatus} is stored by its
+ * code, which matches the ordinal + 1 that versions 1-3 were written with.
+ *
+ * <p>Version history: 1 = initial layout; 2 = adds orderVersion, customerId and totalAmount to
+ * the event and version to the order, so slim events without a nested order stay useful;
+ * 3 = event timestamp as epoch millis plus placedAt, the order's placement time.
+ *
+ * <p>Standalone order records ({@link #encodeOrder}) are versioned separately, since the archive
+ * keeps them for as long as it keeps orders: 1-3 as above, 4 = status stored by name, so
+ * reordering or adding {@link OrderStatus} constants cannot change what an old record decodes to.
+ */
+public final class OrderEventCodec {
+    
+    public static final byte MAGIC = 0x00;
+    public static final byte VERSION = 3;
+    public static final byte ORDER_RECORD_VERSION = 4;
+    
+    // A writer that grew past this for one large order is dropped rather than kept by its thread
+    static final int MAX_RETAINED_BYTES = 64 * 1024;
+    
+    private static final ThreadLocal<BinaryWriter> WRITERS =
+            ThreadLocal.withInitial(() -> new BinaryWriter(1024));
+    
+    private OrderEventCodec() {
+    }
+    
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+    
+    public static byte[] encode(OrderEvent event) {
+        BinaryWriter writer = WRITERS.get();
+        writer.reset();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        
+        writer.writeNullableString(event.getEventId());
+        writer.writeNullableString(event.getOrderId());
+        writeOrder(writer, event.getOrder(), false);
+        writer.writeNullableLong(event.getOrderVersion());
+        writer.writeNullableString(event.getCustomerId());
+        writer.writeNullableDouble(event.getTotalAmount());
+        writer.writeNullableEnum(event.getStatus(), OrderStatus::getCode);
+        writer.writeNullableString(event.getMessage());
+        writer.writeVarLong(event.getTimestamp());
+        writer.writeNullableLong(event.getPlacedAt());
+        writer.writeNullableString(event.getSourceService());
+        
+        return finish(writer);
+    }
+    
+    public static OrderEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary OrderEvent payload");
+        }
+        int version = data[1];
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported OrderEvent schema version: " + version);
+        }
+        
+        BinaryReader reader = new BinaryReader(data, 2);
+        OrderEvent event = new OrderEvent();
+        event.setEventId(reader.readNullableString());
+        event.setOrderId(reader.readNullableString());
+        event.setOrder(readOrder(reader, version, false));
+        if (version >= 2) {
+            event.setOrderVersion(reader.readNullableLong());
+            event.setCustomerId(reader.readNullableString());
+            event.setTotalAmount(reader.readNullableDouble());
+        }
+        event.setStatus(reader.readNullableEnum(OrderStatus::fromCode));
+        event.setMessage(reader.readNullableString());
+        if (version >= 3) {
+            event.setTimestamp(reader.readVarLong());
+            event.setPlacedAt(reader.readNullableLong());
+        } else {
+            event.setTimestamp(EpochMillisDeserializer.toEpochMillis(reader.readNullableDateTime()));
+        }
+        event.setSourceService(reader.readNullableString());
+        
+        return event;
+    }
+    
+    /**
+     * A standalone order in the layout of the one nested in an event, but with its status
+     * stored by name, behind the magic byte and {@link #ORDER_RECORD_VERSION}. Used by the
+     * order archive.
+     */
+    public static byte[] encodeOrder(Order order) {
+        BinaryWriter writer = WRITERS.get();
+        writer.reset();
+        writer.writeByte(MAGIC);
+        writer.writeByte(ORDER_RECORD_VERSION);
+        writeOrder(writer, order, true);
+        return finish(writer);
+    }
+    
+    public static Order decodeOrder(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary Order payload");
+        }
+        int version = data[1];
+        if (version < 1 || version > ORDER_RECORD_VERSION) {
+            throw new IllegalArgumentException("Unsupported Order schema version: " + version);
+        }
+        return readOrder(new BinaryReader(data, 2), version, version >= 4);
+    }
+    
+    private static byte[] finish(BinaryWriter writer) {
+        byte[] data = writer.toByteArray();
+        if (writer.capacity() > MAX_RETAINED_BYTES) {
+            WRITERS.remove();
+        }
+        return data;
+    }
+    
+    private static void writeOrder(BinaryWriter writer, Order order, boolean statusByName) {
+        if (order == null) {
+            writer.writeByte(0);
+            return;
+        }
+        writer.writeByte(1);
+        writer.writeNullableString(order.getOrderId());
+        writer.writeNullableString(order.getCustomerId());
+        writer.writeNullableString(order.getCustomerEmail());
+        if (statusByName) {
+            writer.writeNullableString(order.getStatus() == null ? null : order.getStatus().name());
+        } else {
+            writer.writeNullableEnum(order.getStatus(), OrderStatus::getCode);
+        }
+        writer.writeNullableDouble(order.getTotalAmount());
+        writer.writeNullableString(order.getShippingAddress());
+        
+        List<OrderItem> items = order.getItems();
+        writer.writeVarLong(items == null ? 0 : items.size() + 1);
+        if (items != null) {
+            for (OrderItem item : items) {
+                writer.writeNullableString(item.getProductId());
+                writer.writeNullableString(item.getProductName());
+                writer.writeNullableInt(item.getQuantity());
+                writer.writeNullableDouble(item.getPrice());
+            }
+        }
+        
+        writer.writeNullableDateTime(order.getCreatedAt());
+        writer.writeNullableDateTime(order.getUpdatedAt());
+        writer.writeNullableString(order.getFailureReason());
+        writer.writeNullableInt(order.getRetryCount());
+        writer.writeNullableLong(order.getVersion());
+    }
+    
+    private static Order readOrder(BinaryReader reader, int version, boolean statusByName) {
+        if (reader.readByte() == 0) {
+            return null;
+        }
+        Order order = new Order();
+        order.setOrderId(reader.readNullableString());
+        order.setCustomerId(reader.readNullableString());
+        order.setCustomerEmail(reader.readNullableString());
+        if (statusByName) {
+            String status = reader.readNullableString();
+            order.setStatus(status == null ? null : OrderStatus.valueOf(status));
+        } else {
+            order.setStatus(reader.readNullableEnum(OrderStatus::fromCode));
+        }
+        order.setTotalAmount(reader.readNullableDouble());
+        order.setShippingAddress(reader.readNullableString());
+        
+        int itemCount = (int) reader.readVarLong();
+        if (itemCount > 0) {
+            List<OrderItem> items = new ArrayList<>(itemCount - 1);
+            for (int i = 0; i < itemCount - 1; i++) {
+                items.add(new OrderItem(
+                    reader.readNullableString(),
+                    reader.readNullableString(),
+                    reader.readNullableInt(),
+                    reader.readNullableDouble()
+                ));
+            }
+            order.setItems(items);
+        } else {
+            order.setItems(null);
+        }
+        
+        order.setCreatedAt(reader.readNullableDateTime());
+        order.setUpdatedAt(reader.readNullableDateTime());
+        order.setFailureReason(reader.readNullableString());
+        order.setRetryCount(reader.readNullableInt());
+        if (version >= 2) {
+            order.setVersion(reader.readNullableLong());
+        }
+        return order;
+    }
+}
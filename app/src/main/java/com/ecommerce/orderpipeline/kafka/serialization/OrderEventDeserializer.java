@@ -0,0 +1,33 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+
+/**
+ * Kafka value deserializer that reads both the binary {@link OrderEventCodec} format and the
+ * JSON written by Spring's JsonSerializer, so producers can be switched over one at a time.
+ */
+public class OrderEventDeserializer implements Deserializer<OrderEvent> {
+    
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (OrderEventCodec.isBinary(data)) {
+            return OrderEventCodec.decode(data);
+        }
+        try {
+            return objectMapper.readValue(data, OrderEvent.class);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize OrderEvent from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing the versioned binary {@link OrderEventCodec} format.
+ */
+public class OrderEventSerializer implements Serializer<OrderEvent> {
+    
+    @Override
+    public byte[] serialize(String topic, OrderEvent data) {
+        return data == null ? null : OrderEventCodec.encode(data);
+    }
+}
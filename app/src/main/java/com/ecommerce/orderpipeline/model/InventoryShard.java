@@ -0,0 +1,28 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.*;
+
+/**
+ * One bucket of a hot product's stock. Reservations for sharded products update a
+ * single bucket row instead of the shared ProductInventory row, so they no longer
+ * serialize on one lock. Only the sums across buckets are meaningful.
+ */
+@Entity
+@Table(name = "inventory_shards")
+@IdClass(InventoryShardId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShard {
+    @Id
+    private String productId;
+    
+    @Id
+    private Integer shardIndex;
+    
+    private Integer availableQuantity = 0;
+    private Integer reservedQuantity = 0;
+}
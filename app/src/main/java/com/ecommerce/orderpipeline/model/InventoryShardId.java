@@ -0,0 +1,15 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShardId implements Serializable {
+    private String productId;
+    private Integer shardIndex;
+}
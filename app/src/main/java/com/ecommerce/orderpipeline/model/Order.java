@@ -3,6 +3,8 @@ package com.ecommerce.orderpipeline.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,7 +27,12 @@ public class Order {
     private Double totalAmount;
     private String shippingAddress;
     
-    @ElementCollection
+    // Written once with the order; the line number makes it an indexed list rather than a bag,
+    // and status changes go through OrderStatusWriter, so the rows are never rewritten
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "order_items", joinColumns = @JoinColumn(name = "order_order_id"))
+    @OrderColumn(name = "line_number")
+    @Immutable
     private List<OrderItem> items;
     
     private LocalDateTime createdAt;
@@ -34,6 +41,9 @@ public class Order {
     private String failureReason;
     private Integer retryCount = 0;
     
+    @Version
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -45,14 +55,3 @@ public class Order {
         updatedAt = LocalDateTime.now();
     }
 }
-
-@Embeddable
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-class OrderItem {
-    private String productId;
-    private String productName;
-    private Integer quantity;
-    private Double price;
-}
\ No newline at end of file
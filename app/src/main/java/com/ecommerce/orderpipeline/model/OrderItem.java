@@ -0,0 +1,17 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.Embeddable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItem {
+    private String productId;
+    private String productName;
+    private Integer quantity;
+    private Double price;
+}
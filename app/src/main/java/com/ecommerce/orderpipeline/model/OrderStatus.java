@@ -0,0 +1,51 @@
+package com.ecommerce.orderpipeline.model;
+
+/**
+ * Each status carries a fixed code, which is what the binary event format stores. Codes are
+ * never reused or changed, so constants can be added or reordered without a new schema version.
+ * It also carries its position in the saga: declaration order is not saga order, and every
+ * outcome that ends the saga outranks the steps before it.
+ */
+public enum OrderStatus {
+    PLACED(1, 0),
+    VALIDATED(2, 1),
+    VALIDATION_FAILED(3, 4),
+    INVENTORY_RESERVED(4, 2),
+    INVENTORY_RESERVATION_FAILED(5, 4),
+    PAYMENT_PROCESSED(6, 3),
+    PAYMENT_FAILED(7, 4),
+    CONFIRMED(8, 4),
+    CANCELLED(9, 4);
+    
+    private static final OrderStatus[] BY_CODE = new OrderStatus[10];
+    
+    static {
+        for (OrderStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+    
+    private final int code;
+    private final int sagaRank;
+    
+    OrderStatus(int code, int sagaRank) {
+        this.code = code;
+        this.sagaRank = sagaRank;
+    }
+    
+    public int getCode() {
+        return code;
+    }
+    
+    public int getSagaRank() {
+        return sagaRank;
+    }
+    
+    public static OrderStatus fromCode(int code) {
+        OrderStatus status = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown OrderStatus code: " + code);
+        }
+        return status;
+    }
+}
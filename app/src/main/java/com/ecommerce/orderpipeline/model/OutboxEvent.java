@@ -0,0 +1,37 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    // Sequence rather than identity, so inserts keep going out in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+    
+    private String topic;
+    private String messageKey;
+    
+    @Column(length = 1_000_000)
+    private String payload;
+    
+    private LocalDateTime createdAt;
+    
+    // Set while a relay is publishing the row; once it passes, another relay may claim it
+    private LocalDateTime claimedUntil;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
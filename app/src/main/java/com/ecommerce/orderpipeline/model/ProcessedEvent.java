@@ -0,0 +1,28 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a saga step with side effects as done for one order. The primary key makes a second
+ * reservation or charge for the same order fail its transaction, whichever instance attempts it.
+ */
+@Entity
+@Table(name = "processed_events", indexes = @Index(name = "idx_processed_events_at", columnList = "processedAt"))
+@IdClass(ProcessedEventId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent {
+    @Id
+    private String stage;
+    
+    @Id
+    private String eventKey;
+    
+    private LocalDateTime processedAt;
+}
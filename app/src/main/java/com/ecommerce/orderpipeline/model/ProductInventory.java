@@ -0,0 +1,37 @@
+package com.ecommerce.orderpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "product_inventory")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductInventory {
+    @Id
+    private String productId;
+    
+    private String productName;
+    
+    private Integer availableQuantity = 0;
+    private Integer reservedQuantity = 0;
+    
+    // Number of inventory_shards rows holding this product's stock; 0 means not sharded
+    private Integer shardCount = 0;
+    
+    private LocalDateTime updatedAt;
+    
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 0;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.orderpipeline.repository;
+
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryRepository extends JpaRepository<ProductInventory, String> {
+    
+    Optional<ProductInventory> findByProductId(String productId);
+    
+    // Rows are locked in productId order so overlapping reservations can never deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ProductInventory p WHERE p.productId IN :productIds ORDER BY p.productId")
+    List<ProductInventory> findAllByProductIdForUpdate(@Param("productIds") Collection<String> productIds);
+    
+    // Hot products' rows take a shared lock: reservations on their buckets still run side by side,
+    // while enabling or disabling sharding (a write lock) waits until they commit
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM ProductInventory p WHERE p.productId IN :productIds ORDER BY p.productId")
+    List<ProductInventory> findAllByProductIdForShare(@Param("productIds") Collection<String> productIds);
+    
+    @Query("SELECT p.productId, p.shardCount FROM ProductInventory p WHERE p.shardCount > 0")
+    List<Object[]> findShardCounts();
+}
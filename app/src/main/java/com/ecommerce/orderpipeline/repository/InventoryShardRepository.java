@@ -0,0 +1,71 @@
+package com.ecommerce.orderpipeline.repository;
+
+import com.ecommerce.orderpipeline.model.InventoryShard;
+import com.ecommerce.orderpipeline.model.InventoryShardId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+@Repository
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, InventoryShardId> {
+    
+    // The bucket at :index if it alone covers the quantity. Tried first, so a reservation usually
+    // locks one row by primary key. Lock timeout -2 renders FOR UPDATE SKIP LOCKED on dialects
+    // that support it (PostgreSQL95Dialect and later), so a bucket another reservation holds is
+    // passed over; elsewhere (H2) it is a plain FOR UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId AND s.shardIndex = :index " +
+           "AND s.availableQuantity >= :quantity")
+    List<InventoryShard> findCoveringBucketAt(@Param("productId") String productId,
+                                              @Param("index") int index,
+                                              @Param("quantity") int quantity);
+    
+    // First bucket from index :start on, wrapping around, that alone covers the quantity
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId AND s.availableQuantity >= :quantity " +
+           "ORDER BY CASE WHEN s.shardIndex >= :start THEN 0 ELSE 1 END, s.shardIndex")
+    List<InventoryShard> findCoveringBucket(@Param("productId") String productId,
+                                            @Param("quantity") int quantity,
+                                            @Param("start") int start,
+                                            Pageable pageable);
+    
+    // The bucket at :index if it holds at least this much reserved stock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId AND s.shardIndex = :index " +
+           "AND s.reservedQuantity >= :quantity")
+    List<InventoryShard> findReleasableBucketAt(@Param("productId") String productId,
+                                                @Param("index") int index,
+                                                @Param("quantity") int quantity);
+    
+    // First bucket from :start on, wrapping around, holding at least this much reserved stock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId AND s.reservedQuantity >= :quantity " +
+           "ORDER BY CASE WHEN s.shardIndex >= :start THEN 0 ELSE 1 END, s.shardIndex")
+    List<InventoryShard> findReleasableBucket(@Param("productId") String productId,
+                                              @Param("quantity") int quantity,
+                                              @Param("start") int start,
+                                              Pageable pageable);
+    
+    // Buckets are locked in shardIndex order, so callers that wait can never deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId ORDER BY s.shardIndex")
+    List<InventoryShard> findAllByProductIdForUpdate(@Param("productId") String productId);
+    
+    @Query("SELECT COALESCE(SUM(s.availableQuantity), 0) FROM InventoryShard s WHERE s.productId = :productId")
+    long sumAvailableQuantity(@Param("productId") String productId);
+    
+    @Query("SELECT COALESCE(SUM(s.reservedQuantity), 0) FROM InventoryShard s WHERE s.productId = :productId")
+    long sumReservedQuantity(@Param("productId") String productId);
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.orderpipeline.repository;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, String> {
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderId(String orderId);
+    
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByOrderIdIn(Collection<String> orderIds);
+    
+    @Query("SELECT o.orderId FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff")
+    List<String> findArchivableOrderIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                        @Param("cutoff") LocalDateTime cutoff, Pageable page);
+}
\ No newline at end of file
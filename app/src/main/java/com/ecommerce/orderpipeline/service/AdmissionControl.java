@@ -0,0 +1,360 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics;
+import com.ecommerce.orderpipeline.kafka.consumer.SagaStage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for order placement. Every order takes a token from a global bucket, and
+ * every request from an authenticated caller one from that caller's bucket. Both are checked
+ * before anything is persisted or published, so a rejection costs no more than the check.
+ *
+ * <p>A pressure circuit watches the {@code orders.placed} consumer lag and the slowest stage's
+ * mean processing time. Past the throttle thresholds every limit is scaled by
+ * {@code throttle-factor}, past the shed thresholds by {@code shed-factor}. Pressure rises on
+ * the first read over a threshold and falls one level after {@code recover-intervals} reads
+ * below it. Lag is read on a thread of its own so a slow broker does not hold up the shared
+ * scheduler.
+ */
+@Service
+public class AdmissionControl {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControl.class);
+    
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+    
+    public enum Pressure {
+        NORMAL,
+        THROTTLED,
+        SHEDDING
+    }
+    
+    public enum Result {
+        ADMITTED,
+        // The customer's own limit; the client should slow down (429)
+        CUSTOMER_LIMITED,
+        // The instance-wide limit, tightened under pressure; try again later (503)
+        OVERLOADED
+    }
+    
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.admission.global.rate:2000}")
+    private double globalRate;
+    
+    @Value("${app.admission.global.burst:4000}")
+    private int globalBurst;
+    
+    @Value("${app.admission.customer.rate:20}")
+    private double customerRate;
+    
+    @Value("${app.admission.customer.burst:40}")
+    private int customerBurst;
+    
+    @Value("${app.admission.customer.max-tracked:100000}")
+    private long maxTrackedCustomers;
+    
+    @Value("${app.admission.pressure.enabled:true}")
+    private boolean pressureEnabled;
+    
+    @Value("${app.admission.pressure.interval-ms:5000}")
+    private long pressureIntervalMs;
+    
+    @Value("${app.admission.pressure.throttle-lag:10000}")
+    private long throttleLag;
+    
+    @Value("${app.admission.pressure.shed-lag:100000}")
+    private long shedLag;
+    
+    @Value("${app.admission.pressure.throttle-latency-ms:2000}")
+    private double throttleLatencyMs;
+    
+    @Value("${app.admission.pressure.shed-latency-ms:10000}")
+    private double shedLatencyMs;
+    
+    @Value("${app.admission.pressure.throttle-factor:0.5}")
+    private double throttleFactor;
+    
+    @Value("${app.admission.pressure.shed-factor:0.1}")
+    private double shedFactor;
+    
+    @Value("${app.admission.pressure.recover-intervals:3}")
+    private int recoverIntervals;
+    
+    @Value("${app.kafka.topics.order-placed}")
+    private String orderPlacedTopic;
+    
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+    
+    private final TokenBucket global = new TokenBucket();
+    private Cache<String, TokenBucket> customers;
+    
+    private volatile Pressure pressure = Pressure.NORMAL;
+    private volatile long lag;
+    private volatile double stageLatencyMs;
+    private int calmReads;
+    private final Map<SagaStage, long[]> stageCounts = new EnumMap<>(SagaStage.class);
+    private final Map<SagaStage, double[]> stageTimes = new EnumMap<>(SagaStage.class);
+    
+    private AdminClient admin;
+    private ScheduledExecutorService monitor;
+    
+    private Counter requests;
+    private Counter customerLimited;
+    private Counter overloaded;
+    
+    @PostConstruct
+    public void init() {
+        // An idle bucket refills within burst / rate, after which forgetting it changes nothing
+        long refillSeconds = (long) Math.ceil(customerBurst / (customerRate * Math.max(shedFactor, 0.01)));
+        customers = Caffeine.newBuilder()
+            .maximumSize(maxTrackedCustomers)
+            .expireAfterAccess(Duration.ofSeconds(Math.max(1, refillSeconds)))
+            .build();
+        
+        requests = meterRegistry.counter("order.admission.requests");
+        customerLimited = meterRegistry.counter("order.admission.rejected", "reason", "customer-limit");
+        overloaded = meterRegistry.counter("order.admission.rejected", "reason", "overloaded");
+        Gauge.builder("order.admission.limit", this, a -> a.limit(a.globalRate))
+            .tag("scope", "global")
+            .description("Orders per second admitted by this instance")
+            .register(meterRegistry);
+        Gauge.builder("order.admission.limit", this, a -> a.limit(a.customerRate))
+            .tag("scope", "customer")
+            .description("Orders per second admitted per customer")
+            .register(meterRegistry);
+        Gauge.builder("order.admission.pressure", this, a -> a.pressure.ordinal())
+            .description("0 = normal, 1 = throttled, 2 = shedding")
+            .register(meterRegistry);
+        Gauge.builder("order.admission.lag", this, a -> a.lag)
+            .description("orders.placed records not yet consumed")
+            .register(meterRegistry);
+        Gauge.builder("order.admission.stage.latency", this, a -> a.stageLatencyMs)
+            .description("Mean processing time of the slowest stage over the last interval, in ms")
+            .register(meterRegistry);
+        
+        if (enabled && pressureEnabled) {
+            admin = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+            monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "admission-pressure");
+                thread.setDaemon(true);
+                return thread;
+            });
+            monitor.scheduleWithFixedDelay(this::evaluatePressure,
+                pressureIntervalMs, pressureIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        if (admin != null) {
+            admin.close();
+        }
+    }
+    
+    /**
+     * Takes a token from the caller's bucket ({@code customerId} is null for unauthenticated
+     * requests, which only the global limit applies to) and then from the global one.
+     */
+    public Decision admit(String customerId) {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        requests.increment();
+        long now = System.nanoTime();
+        if (customerId != null) {
+            Decision decision = takeCustomerToken(customerId, now);
+            if (!decision.isAdmitted()) {
+                return decision;
+            }
+        }
+        return takeGlobalToken(now);
+    }
+    
+    /**
+     * The global check alone, for each further order of a bulk request whose caller has already
+     * been admitted.
+     */
+    public Decision admitOrder() {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        requests.increment();
+        return takeGlobalToken(System.nanoTime());
+    }
+    
+    public Pressure getPressure() {
+        return pressure;
+    }
+    
+    void evaluatePressure() {
+        try {
+            lag = readLag();
+        } catch (Exception e) {
+            logger.warn("Admission control could not read {} lag: {}", orderPlacedTopic, e.getMessage());
+        }
+        stageLatencyMs = readStageLatencyMs();
+        
+        Pressure observed = lag >= shedLag || stageLatencyMs >= shedLatencyMs ? Pressure.SHEDDING
+            : lag >= throttleLag || stageLatencyMs >= throttleLatencyMs ? Pressure.THROTTLED
+            : Pressure.NORMAL;
+        Pressure current = pressure;
+        if (observed.compareTo(current) >= 0) {
+            calmReads = 0;
+            if (observed != current) {
+                changePressure(current, observed);
+            }
+        } else if (++calmReads >= recoverIntervals) {
+            calmReads = 0;
+            changePressure(current, Pressure.values()[current.ordinal() - 1]);
+        }
+    }
+    
+    private void changePressure(Pressure from, Pressure to) {
+        pressure = to;
+        logger.warn("Order admission {} -> {} (lag {}, slowest stage {} ms): {} orders/s, {} per customer",
+            from, to, lag, Math.round(stageLatencyMs), limit(globalRate), limit(customerRate));
+    }
+    
+    private Decision takeCustomerToken(String customerId, long now) {
+        double rate = limit(customerRate);
+        long wait = rate > 0
+            ? customers.get(customerId, id -> new TokenBucket()).tryAcquire(now, rate, customerBurst)
+            : -1;
+        if (wait != 0) {
+            customerLimited.increment();
+            return new Decision(Result.CUSTOMER_LIMITED, retryAfterSeconds(wait));
+        }
+        return Decision.ADMITTED;
+    }
+    
+    private Decision takeGlobalToken(long now) {
+        double rate = limit(globalRate);
+        long wait = rate > 0 ? global.tryAcquire(now, rate, globalBurst) : -1;
+        if (wait != 0) {
+            overloaded.increment();
+            return new Decision(Result.OVERLOADED, retryAfterSeconds(wait));
+        }
+        return Decision.ADMITTED;
+    }
+    
+    private double limit(double rate) {
+        switch (pressure) {
+            case THROTTLED:
+                return rate * throttleFactor;
+            case SHEDDING:
+                return rate * shedFactor;
+            default:
+                return rate;
+        }
+    }
+    
+    // A closed bucket (rate 0) has no refill time; clients come back after the next pressure read
+    private long retryAfterSeconds(long waitNanos) {
+        long wait = waitNanos > 0 ? waitNanos : TimeUnit.MILLISECONDS.toNanos(pressureIntervalMs);
+        return Math.max(1, (wait + 999_999_999L) / 1_000_000_000L);
+    }
+    
+    private long readLag() throws Exception {
+        TopicDescription description = admin.describeTopics(List.of(orderPlacedTopic)).all()
+            .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).get(orderPlacedTopic);
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        for (int p = 0; p < description.partitions().size(); p++) {
+            request.put(new TopicPartition(orderPlacedTopic, p), OffsetSpec.latest());
+        }
+        Map<TopicPartition, ListOffsetsResultInfo> logEnds =
+            admin.listOffsets(request).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        
+        long total = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResultInfo> end : logEnds.entrySet()) {
+            OffsetAndMetadata position = committed.get(end.getKey());
+            total += Math.max(0, end.getValue().offset() - (position == null ? 0 : position.offset()));
+        }
+        return total;
+    }
+    
+    // Mean time per record since the previous read, for the slowest stage that handled any
+    private double readStageLatencyMs() {
+        double slowest = 0;
+        for (SagaStage stage : SagaStage.values()) {
+            long count = pipelineMetrics.stageCount(stage);
+            double totalMs = pipelineMetrics.stageTotalTime(stage, TimeUnit.MILLISECONDS);
+            long[] lastCount = stageCounts.computeIfAbsent(stage, s -> new long[] {count});
+            double[] lastTotal = stageTimes.computeIfAbsent(stage, s -> new double[] {totalMs});
+            if (count > lastCount[0]) {
+                slowest = Math.max(slowest, (totalMs - lastTotal[0]) / (count - lastCount[0]));
+            }
+            lastCount[0] = count;
+            lastTotal[0] = totalMs;
+        }
+        return slowest;
+    }
+    
+    public static class Decision {
+        
+        static final Decision ADMITTED = new Decision(Result.ADMITTED, 0);
+        
+        private final Result result;
+        private final long retryAfterSeconds;
+        
+        Decision(Result result, long retryAfterSeconds) {
+            this.result = result;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public boolean isAdmitted() {
+            return result == Result.ADMITTED;
+        }
+        
+        public Result getResult() {
+            return result;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.dto.BulkOrderResult;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.id.IdGenerator;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventOutbox;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk ingestion for {@code POST /api/orders/batch}. Orders are parsed one at a time from an
+ * NDJSON stream or a JSON array, so the payload is never held in memory. Valid orders are
+ * group-committed: up to {@code max-batch-size} orders, or whatever arrived within
+ * {@code commit-interval-ms}, are persisted in one transaction as batched inserts together with
+ * their outboxed OrderPlaced events, and one NDJSON result line per order is streamed back.
+ * Each order after the first, which the admission interceptor paid for, takes its own global
+ * admission token; once intake is saturated the rest of the stream is rejected unread.
+ */
+@Service
+public class BulkOrderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderService.class);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private OrderEventOutbox eventOutbox;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    @Autowired
+    private AdmissionControl admissionControl;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.orders.bulk.max-batch-size:500}")
+    private int maxBatchSize;
+    
+    @Value("${app.orders.bulk.commit-interval-ms:50}")
+    private long commitIntervalMs;
+    
+    public void placeOrders(InputStream body, OutputStream response) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response)) {
+            GroupCommit group = new GroupCommit(generator);
+            
+            // A leading '[' means a JSON array; otherwise the body is a stream of root-level objects
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            
+            int index = 0;
+            while (token == JsonToken.START_OBJECT) {
+                Order order;
+                try {
+                    order = objectMapper.readValue(parser, Order.class);
+                } catch (JsonProcessingException e) {
+                    // The stream can't be resynchronised after malformed JSON, so stop here
+                    group.commit();
+                    group.write(BulkOrderResult.rejected(index, null, "Malformed order: " + e.getOriginalMessage()));
+                    return;
+                }
+                // The interceptor's token paid for the first order
+                AdmissionControl.Decision decision = index == 0 ? AdmissionControl.Decision.ADMITTED
+                    : admissionControl.admitOrder();
+                if (!decision.isAdmitted()) {
+                    // Stop where a single request would get a 503; the client resubmits from this index
+                    group.commit();
+                    group.write(BulkOrderResult.rejected(index, order.getOrderId(),
+                        "Order intake is saturated, retry in " + decision.getRetryAfterSeconds()
+                            + "s; orders from this index on were not placed"));
+                    return;
+                }
+                group.add(index++, order);
+                token = parser.nextToken();
+            }
+            
+            if (array ? token != JsonToken.END_ARRAY : token != null) {
+                group.commit();
+                group.write(BulkOrderResult.rejected(index, null, "Expected an order object but found " + token));
+                return;
+            }
+            group.commit();
+            logger.info("Bulk ingestion finished: {} orders received", index);
+        }
+    }
+    
+    private class GroupCommit {
+        
+        private final JsonGenerator generator;
+        private final List<Order> orders = new ArrayList<>();
+        private final List<Integer> indexes = new ArrayList<>();
+        private long startedAt;
+        
+        GroupCommit(JsonGenerator generator) {
+            this.generator = generator;
+        }
+        
+        void add(int index, Order order) throws IOException {
+            String error = validate(order);
+            if (error != null) {
+                write(BulkOrderResult.rejected(index, order.getOrderId(), error));
+                return;
+            }
+            
+            if (orders.isEmpty()) {
+                startedAt = System.currentTimeMillis();
+            }
+            orders.add(order);
+            indexes.add(index);
+            // The interval is checked as records arrive; a stalled client holds at most one open group
+            if (orders.size() >= maxBatchSize || System.currentTimeMillis() - startedAt >= commitIntervalMs) {
+                commit();
+            }
+        }
+        
+        void commit() throws IOException {
+            if (orders.isEmpty()) {
+                return;
+            }
+            
+            List<Order> placed = new ArrayList<>(orders.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(orders));
+                placed.addAll(orders);
+                for (int i = 0; i < orders.size(); i++) {
+                    write(BulkOrderResult.accepted(indexes.get(i), orders.get(i).getOrderId()));
+                }
+            } catch (Exception e) {
+                // One bad row (e.g. a duplicate orderId) fails the group; retry one by one to isolate it
+                logger.warn("Group commit of {} orders failed, retrying individually: {}", orders.size(), e.getMessage());
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    order.setVersion(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> persist(List.of(order)));
+                        placed.add(order);
+                        write(BulkOrderResult.accepted(indexes.get(i), order.getOrderId()));
+                    } catch (Exception single) {
+                        write(BulkOrderResult.rejected(indexes.get(i), order.getOrderId(),
+                            NestedExceptionUtils.getMostSpecificCause(single).getMessage()));
+                    }
+                }
+            }
+            
+            for (Order order : placed) {
+                orderCache.put(order);
+            }
+            generator.flush();
+            orders.clear();
+            indexes.clear();
+        }
+        
+        void write(BulkOrderResult result) throws IOException {
+            generator.writeObject(result);
+            generator.writeRaw('\n');
+        }
+    }
+    
+    private String validate(Order order) {
+        if (order.getOrderId() == null) {
+            order.setOrderId(idGenerator.nextId());
+        }
+        order.setStatus(OrderStatus.PLACED);
+        order.setVersion(null);
+        
+        Set<ConstraintViolation<Order>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Order> violation = violations.iterator().next();
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        return null;
+    }
+    
+    private void persist(List<Order> orders) {
+        for (Order order : orders) {
+            entityManager.persist(order);
+        }
+        // Flush first so the events carry the versions the inserts assigned
+        entityManager.flush();
+        
+        List<OrderEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(new OrderEvent(
+                order.getOrderId(),
+                order,
+                OrderStatus.PLACED,
+                "Order placed successfully",
+                "OrderAPI"
+            ));
+        }
+        eventOutbox.ordersPlaced(events);
+        
+        // Flush and detach inside the transaction so the insert batches go out in few round trips
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
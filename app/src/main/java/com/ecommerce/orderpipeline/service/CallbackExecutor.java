@@ -0,0 +1,44 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Where saga continuations run once a payment, a broker acknowledgment or a status write
+ * completes. Those futures complete on the gateway scheduler, the HTTP client, the producer's
+ * network thread or the status writer, none of which may block on the database or on another
+ * send; stages hop here with {@code handleAsync(..., callbackExecutor.get())} first.
+ * Deliberately not an {@link Executor} bean, so Boot's own task executor stays in place.
+ */
+@Component
+public class CallbackExecutor {
+    
+    @Autowired
+    private ExecutionThreads executionThreads;
+    
+    @Value("${app.saga.callback-threads:16}")
+    private int threads;
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    public void init() {
+        executor = executionThreads.newExecutor("saga-callback-", threads);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    public Executor get() {
+        return executor;
+    }
+}
@@ -0,0 +1,304 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.ProcessedEventId;
+import com.ecommerce.orderpipeline.repository.ProcessedEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which saga steps with side effects (stock reservation, payment) are done for
+ * which order, so a redelivered or re-emitted event skips the work instead of repeating it.
+ *
+ * <p>A check costs a Bloom filter probe in the common case. Only a possible hit consults the
+ * exact LRU of recent keys, and only an LRU miss goes to the {@code processed_events} table.
+ * Each key is inserted there in the transaction that did the work, so its primary key stops a
+ * second reservation even when two instances race.
+ *
+ * <p>A full filter is sealed and a fresh one started; sealed generations are kept until every
+ * key in them is past {@code retention-ms}, so the filters always cover the whole window the
+ * table does. The table is loaded in full once, at startup. A partition assignment then only
+ * catches up on keys other instances wrote since the last load; until that catch-up finishes
+ * every check goes to the table.
+ */
+@Component
+public class EventDeduplicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicator.class);
+    
+    private static final String INSERT =
+        "INSERT INTO processed_events (stage, event_key, processed_at) VALUES (?, ?, ?)";
+    
+    private static final String SELECT_SINCE =
+        "SELECT stage, event_key FROM processed_events WHERE processed_at >= ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.idempotency.expected-entries:1000000}")
+    private long expectedEntries;
+    
+    @Value("${app.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Value("${app.idempotency.lru-size:100000}")
+    private long lruSize;
+    
+    @Value("${app.idempotency.retention-ms:86400000}")
+    private long retentionMs;
+    
+    // A catch-up re-reads this much before the last load, covering transactions that committed late
+    @Value("${app.idempotency.reload-overlap-ms:60000}")
+    private long reloadOverlapMs;
+    
+    private volatile BloomFilter current;
+    // Sealed generations, oldest first; replaced as a whole, never modified in place
+    private volatile List<Generation> sealed = List.of();
+    private Cache<String, Boolean> recent;
+    
+    private volatile boolean warm;
+    private final AtomicLong reloadRequests = new AtomicLong();
+    private long reloaded;
+    // Reload thread only; null until the full load has succeeded
+    private LocalDateTime loadedSince;
+    private ExecutorService reloader;
+    
+    private Counter unseen;
+    private Counter duplicates;
+    private Counter backstopLookups;
+    
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        current = new BloomFilter(expectedEntries, falsePositiveRate);
+        recent = Caffeine.newBuilder().maximumSize(lruSize).build();
+        reloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dedup-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        unseen = meterRegistry.counter("order.idempotency.checks", "result", "new");
+        duplicates = meterRegistry.counter("order.idempotency.checks", "result", "duplicate");
+        backstopLookups = meterRegistry.counter("order.idempotency.backstop.lookups");
+        requestReload();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+    
+    /**
+     * True if {@code key} was already processed for {@code stage}.
+     */
+    public boolean isProcessed(String stage, String key) {
+        if (!enabled) {
+            return false;
+        }
+        String id = id(stage, key);
+        if (warm && !mightContain(id)) {
+            unseen.increment();
+            return false;
+        }
+        if (recent.getIfPresent(id) != null) {
+            duplicates.increment();
+            return true;
+        }
+        
+        backstopLookups.increment();
+        if (processedEventRepository.existsById(new ProcessedEventId(stage, key))) {
+            remember(id);
+            duplicates.increment();
+            return true;
+        }
+        unseen.increment();
+        return false;
+    }
+    
+    /**
+     * Records the keys as processed in the caller's transaction; the in-memory structures are
+     * updated only once it commits. Fails with {@link DuplicateKeyException} if another
+     * instance got there first, which rolls back the caller's work.
+     */
+    @Transactional
+    public void markProcessed(String stage, Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ids.add(id(stage, key));
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT, new ArrayList<>(keys), keys.size(), (ps, key) -> {
+                ps.setString(1, stage);
+                ps.setString(2, key);
+                ps.setTimestamp(3, now);
+            });
+        } catch (DuplicateKeyException e) {
+            // Some of these are done elsewhere; flag them all so the retry checks the table
+            for (String id : ids) {
+                current.put(id);
+            }
+            throw e;
+        }
+        AfterCommit.run(() -> ids.forEach(this::remember));
+    }
+    
+    /**
+     * Loads keys other instances processed since the last load (all keys within the retention
+     * window the first time). Called on partition assignment, since the new partitions' history
+     * was written elsewhere. Requests from several containers' rebalances fold into one pass.
+     */
+    public void requestReload() {
+        if (!enabled) {
+            return;
+        }
+        warm = false;
+        reloadRequests.incrementAndGet();
+        reloader.execute(this::reload);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        int purged = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(Duration.ofMillis(retentionMs)));
+        dropExpiredGenerations();
+        if (purged > 0) {
+            logger.info("Purged {} processed-event keys older than {}ms", purged, retentionMs);
+        }
+    }
+    
+    // Runs on the reload thread only; requests that arrive while loading are folded into one more pass
+    private void reload() {
+        long requested = reloadRequests.get();
+        if (requested <= reloaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] loaded = {0};
+        LocalDateTime now = LocalDateTime.now();
+        boolean full = loadedSince == null;
+        LocalDateTime since = full
+            ? now.minus(Duration.ofMillis(retentionMs))
+            : loadedSince.minus(Duration.ofMillis(reloadOverlapMs));
+        try {
+            jdbcTemplate.query(SELECT_SINCE, (RowCallbackHandler) rs -> {
+                put(id(rs.getString(1), rs.getString(2)));
+                loaded[0]++;
+            }, Timestamp.valueOf(since));
+        } catch (Exception e) {
+            logger.warn("Reloading processed-event keys failed, checks keep going to the database: {}", e.getMessage());
+            return;
+        }
+        loadedSince = now;
+        reloaded = requested;
+        if (reloadRequests.get() == requested) {
+            warm = true;
+        }
+        logger.info("Loaded {} processed-event keys ({}) in {}ms", loaded[0], full ? "full" : "catch-up",
+            (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    private void remember(String id) {
+        put(id);
+        recent.put(id, Boolean.TRUE);
+    }
+    
+    private void put(String id) {
+        BloomFilter filter = current;
+        if (filter.isFull()) {
+            synchronized (this) {
+                if (current.isFull()) {
+                    List<Generation> generations = new ArrayList<>(sealed);
+                    generations.add(new Generation(current, System.currentTimeMillis()));
+                    sealed = List.copyOf(generations);
+                    current = new BloomFilter(expectedEntries, falsePositiveRate);
+                    dropExpiredGenerations();
+                }
+                filter = current;
+            }
+        }
+        filter.put(id);
+    }
+    
+    // A generation sealed before the retention window began holds only keys the table has purged too
+    private synchronized void dropExpiredGenerations() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        List<Generation> generations = sealed;
+        int expired = 0;
+        while (expired < generations.size() && generations.get(expired).sealedAt < cutoff) {
+            expired++;
+        }
+        if (expired > 0) {
+            sealed = List.copyOf(generations.subList(expired, generations.size()));
+        }
+    }
+    
+    private boolean mightContain(String id) {
+        if (current.mightContain(id)) {
+            return true;
+        }
+        for (Generation generation : sealed) {
+            if (generation.filter.mightContain(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String id(String stage, String key) {
+        return stage + ':' + key;
+    }
+    
+    private static class Generation {
+        
+        final BloomFilter filter;
+        final long sealedAt;
+        
+        Generation(BloomFilter filter, long sealedAt) {
+            this.filter = filter;
+            this.sealedAt = sealedAt;
+        }
+    }
+}
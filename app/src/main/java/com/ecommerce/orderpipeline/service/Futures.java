@@ -0,0 +1,16 @@
+package com.ecommerce.orderpipeline.service;
+
+import java.util.concurrent.CompletionException;
+
+public final class Futures {
+    
+    private Futures() {
+    }
+    
+    /**
+     * Strips the CompletionException wrapper that CompletableFuture stages add.
+     */
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import com.ecommerce.orderpipeline.model.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calls an external gateway over HTTP with the JDK client, so no thread waits on the response.
+ * Expects {@code {"approved": true|false}} back; 402 is treated as a decline.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway.mode", havingValue = "http")
+public class HttpPaymentGateway implements PaymentGateway {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ExecutionThreads executionThreads;
+    
+    @Value("${app.payment.gateway.url}")
+    private String gatewayUrl;
+    
+    @Value("${app.payment.timeout:5000}")
+    private long paymentTimeout;
+    
+    private HttpClient httpClient;
+    
+    @PostConstruct
+    public void init() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(paymentTimeout));
+        // Responses are parsed and the saga continues on this executor; the default is a platform pool
+        if (executionThreads.isVirtual()) {
+            builder.executor(executionThreads.newExecutor("payment-http-", 0));
+        }
+        httpClient = builder.build();
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> authorize(Order order) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("orderId", order.getOrderId());
+        payload.put("customerId", order.getCustomerId());
+        payload.put("amount", order.getTotalAmount());
+        
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(gatewayUrl))
+                    .timeout(Duration.ofMillis(paymentTimeout))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)))
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::isApproved);
+    }
+    
+    private boolean isApproved(HttpResponse<byte[]> response) {
+        if (response.statusCode() == 402) {
+            return false;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new RuntimeException("Payment gateway returned HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.path("approved").asBoolean(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.dto.ReservationResult;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Service
+public class InventoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+    
+    // Key space in processed_events; matches the saga stage key
+    private static final String RESERVATION = "inventory";
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+    
+    @Transactional
+    public boolean reserveInventory(Order order) {
+        ReservationResult result = reserveInventory(List.of(order)).get(0);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getFailureReason());
+        }
+        return true;
+    }
+    
+    /**
+     * Reserves stock for many orders at once. All inventory rows involved are loaded
+     * with a single locking query in productId order, reservations are applied in memory
+     * (all-or-nothing per order) and flushed as one batched update on commit.
+     * Sharded (hot) products only take a shared row lock and reserve from their stock buckets.
+     * Orders already reserved once (a redelivered event) succeed without touching stock; new
+     * reservations are recorded in the same transaction so that holds across instances.
+     */
+    @Transactional
+    public List<ReservationResult> reserveInventory(List<Order> orders) {
+        logger.debug("Reserving inventory for {} orders", orders.size());
+        
+        boolean[] done = new boolean[orders.size()];
+        List<Order> pending = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            done[i] = eventDeduplicator.isProcessed(RESERVATION, orders.get(i).getOrderId());
+            if (!done[i]) {
+                pending.add(orders.get(i));
+            }
+        }
+        
+        Map<String, ProductInventory> inventoryByProduct = lockInventory(pending);
+        List<ReservationResult> results = new ArrayList<>(orders.size());
+        List<String> reserved = new ArrayList<>(pending.size());
+        
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (done[i]) {
+                logger.debug("Inventory already reserved for order {}, skipping", order.getOrderId());
+                results.add(ReservationResult.success(order.getOrderId()));
+                continue;
+            }
+            Map<String, Integer> requested = requestedQuantities(order);
+            String failureReason = null;
+            
+            for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+                if (isSharded(entry.getKey(), inventoryByProduct)) {
+                    continue;
+                }
+                ProductInventory inventory = inventoryByProduct.get(entry.getKey());
+                if (inventory == null) {
+                    failureReason = "Product not found: " + entry.getKey();
+                    break;
+                }
+                if (inventory.getAvailableQuantity() < entry.getValue()) {
+                    failureReason = "Insufficient inventory for product: " + entry.getKey() +
+                        ". Available: " + inventory.getAvailableQuantity() +
+                        ", Requested: " + entry.getValue();
+                    break;
+                }
+            }
+            
+            if (failureReason == null) {
+                failureReason = reserveShardedItems(requested, inventoryByProduct);
+            }
+            
+            if (failureReason != null) {
+                logger.warn("Inventory reservation failed for order {}: {}", order.getOrderId(), failureReason);
+                results.add(ReservationResult.failure(order.getOrderId(), failureReason));
+                continue;
+            }
+            
+            // Reserve inventory
+            for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+                if (isSharded(entry.getKey(), inventoryByProduct)) {
+                    continue;
+                }
+                ProductInventory inventory = inventoryByProduct.get(entry.getKey());
+                inventory.setAvailableQuantity(inventory.getAvailableQuantity() - entry.getValue());
+                inventory.setReservedQuantity(inventory.getReservedQuantity() + entry.getValue());
+            }
+            results.add(ReservationResult.success(order.getOrderId()));
+            reserved.add(order.getOrderId());
+        }
+        eventDeduplicator.markProcessed(RESERVATION, reserved);
+        
+        // Locked rows are managed entities, so dirty checking writes them back in one JDBC batch
+        logger.debug("Inventory reservation completed for {} orders", orders.size());
+        return results;
+    }
+    
+    @Transactional
+    public void releaseInventory(Order order) {
+        releaseInventory(List.of(order));
+    }
+    
+    @Transactional
+    public void releaseInventory(List<Order> orders) {
+        logger.debug("Releasing inventory for {} orders", orders.size());
+        
+        Map<String, ProductInventory> inventoryByProduct = lockInventory(orders);
+        
+        for (Order order : orders) {
+            for (Map.Entry<String, Integer> entry : requestedQuantities(order).entrySet()) {
+                if (isSharded(entry.getKey(), inventoryByProduct)) {
+                    shardedStockService.release(entry.getKey(), entry.getValue());
+                    continue;
+                }
+                ProductInventory inventory = inventoryByProduct.get(entry.getKey());
+                
+                if (inventory != null) {
+                    // Release reserved inventory
+                    inventory.setAvailableQuantity(inventory.getAvailableQuantity() + entry.getValue());
+                    inventory.setReservedQuantity(inventory.getReservedQuantity() - entry.getValue());
+                }
+            }
+        }
+        
+        logger.debug("Inventory release completed for {} orders", orders.size());
+    }
+    
+    public long getAvailableQuantity(String productId) {
+        ProductInventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
+        
+        long available = inventory.getAvailableQuantity();
+        if (inventory.isSharded()) {
+            available += shardedStockService.getAvailableQuantity(productId);
+        }
+        return available;
+    }
+    
+    /**
+     * Reserves every sharded item of one order, undoing the ones already taken if any bucket
+     * set runs dry so the order stays all-or-nothing. Returns the failure reason, or null.
+     */
+    private String reserveShardedItems(Map<String, Integer> requested, Map<String, ProductInventory> inventoryByProduct) {
+        List<Map.Entry<String, Integer>> reserved = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            if (!isSharded(entry.getKey(), inventoryByProduct)) {
+                continue;
+            }
+            if (!shardedStockService.reserve(entry.getKey(), entry.getValue())) {
+                for (Map.Entry<String, Integer> taken : reserved) {
+                    shardedStockService.release(taken.getKey(), taken.getValue());
+                }
+                return "Insufficient inventory for product: " + entry.getKey() +
+                    ", Requested: " + entry.getValue();
+            }
+            reserved.add(entry);
+        }
+        return null;
+    }
+    
+    // Read from the row locked for this transaction, never from the shard map
+    private boolean isSharded(String productId, Map<String, ProductInventory> inventoryByProduct) {
+        ProductInventory inventory = inventoryByProduct.get(productId);
+        return inventory != null && inventory.isSharded();
+    }
+    
+    /**
+     * Locks every product row involved, in productId order whatever the lock mode. Rows the
+     * shard map calls hot take a shared lock, so their reservations still run side by side while
+     * enabling or disabling sharding waits for them; the shard flag read here holds until commit.
+     * A stale map entry only picks the weaker or stronger lock, and is corrected from the row.
+     */
+    private Map<String, ProductInventory> lockInventory(List<Order> orders) {
+        TreeSet<String> productIds = new TreeSet<>();
+        for (Order order : orders) {
+            productIds.addAll(requestedQuantities(order).keySet());
+        }
+        
+        Map<String, ProductInventory> inventoryByProduct = new HashMap<>();
+        List<String> run = new ArrayList<>();
+        boolean runShared = false;
+        for (String productId : productIds) {
+            boolean shared = shardedStockService.isSharded(productId);
+            if (shared != runShared && !run.isEmpty()) {
+                lockRun(run, runShared, inventoryByProduct);
+                run.clear();
+            }
+            run.add(productId);
+            runShared = shared;
+        }
+        lockRun(run, runShared, inventoryByProduct);
+        return inventoryByProduct;
+    }
+    
+    private void lockRun(List<String> productIds, boolean shared, Map<String, ProductInventory> inventoryByProduct) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<ProductInventory> rows = shared
+            ? inventoryRepository.findAllByProductIdForShare(productIds)
+            : inventoryRepository.findAllByProductIdForUpdate(productIds);
+        for (ProductInventory inventory : rows) {
+            inventoryByProduct.put(inventory.getProductId(), inventory);
+            shardedStockService.updateShardCount(inventory.getProductId(),
+                inventory.isSharded() ? inventory.getShardCount() : 0);
+        }
+    }
+    
+    private Map<String, Integer> requestedQuantities(Order order) {
+        Map<String, Integer> requested = new TreeMap<>();
+        if (order.getItems() == null) {
+            return requested;
+        }
+        for (OrderItem item : order.getItems()) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.archive.OrderArchive;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local read-through cache of full orders, so slim events only need to carry the orderId
+ * and version. Callers always get their own copy, since stages mutate the order they work on.
+ */
+@Component
+public class OrderCache {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.orders.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${app.orders.cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+    
+    private Cache<String, Order> cache;
+    private Timer hotLookups;
+    
+    @PostConstruct
+    public void init() {
+        // Compare before and after archiving to see what a smaller orders table buys
+        hotLookups = Timer.builder("order.hot.lookups")
+                .description("Single-order reads from the orders table on a cache miss")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWriteMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+    
+    public void put(Order order) {
+        cache.put(order.getOrderId(), copyOf(order));
+    }
+    
+    public void evict(String orderId) {
+        cache.invalidate(orderId);
+    }
+    
+    /**
+     * Returns a copy of the order at or after {@code minVersion}, loading it from the
+     * database on a miss or when the cached copy is older than the event that refers to it.
+     * Orders no longer in the table are looked up in the archive.
+     */
+    public Order get(String orderId, Long minVersion) {
+        Order cached = cache.getIfPresent(orderId);
+        if (cached == null || isStale(cached, minVersion)) {
+            long start = System.nanoTime();
+            Optional<Order> row = orderRepository.findWithItemsByOrderId(orderId);
+            hotLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            cached = row.or(() -> orderArchive.find(orderId))
+                    .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            cache.put(orderId, cached);
+        }
+        return copyOf(cached);
+    }
+    
+    /**
+     * Fills in the full order on a slim event. Events that already carry the order are left as is.
+     */
+    public OrderEvent attachOrder(OrderEvent event) {
+        if (event.getOrder() == null) {
+            event.setOrder(get(event.getOrderId(), event.getOrderVersion()));
+        }
+        return event;
+    }
+    
+    /**
+     * Batch form of {@link #attachOrder}: all cache misses are loaded with one query.
+     * Events whose order no longer exists are left without one.
+     */
+    public void attachOrders(List<OrderEvent> events) {
+        Map<String, OrderEvent> missing = new HashMap<>();
+        for (OrderEvent event : events) {
+            if (event.getOrder() != null) {
+                continue;
+            }
+            Order cached = cache.getIfPresent(event.getOrderId());
+            if (cached != null && !isStale(cached, event.getOrderVersion())) {
+                event.setOrder(copyOf(cached));
+            } else {
+                missing.put(event.getOrderId(), event);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        for (Order order : orderRepository.findWithItemsByOrderIdIn(new ArrayList<>(missing.keySet()))) {
+            cache.put(order.getOrderId(), order);
+        }
+        for (OrderEvent event : missing.values()) {
+            Order loaded = cache.getIfPresent(event.getOrderId());
+            if (loaded != null) {
+                event.setOrder(copyOf(loaded));
+            }
+        }
+    }
+    
+    private static boolean isStale(Order cached, Long minVersion) {
+        return minVersion != null && (cached.getVersion() == null || cached.getVersion() < minVersion);
+    }
+    
+    private static Order copyOf(Order order) {
+        Order copy = new Order();
+        copy.setOrderId(order.getOrderId());
+        copy.setCustomerId(order.getCustomerId());
+        copy.setCustomerEmail(order.getCustomerEmail());
+        copy.setStatus(order.getStatus());
+        copy.setTotalAmount(order.getTotalAmount());
+        copy.setShippingAddress(order.getShippingAddress());
+        copy.setItems(order.getItems() == null ? null : new ArrayList<>(order.getItems()));
+        copy.setCreatedAt(order.getCreatedAt());
+        copy.setUpdatedAt(order.getUpdatedAt());
+        copy.setFailureReason(order.getFailureReason());
+        copy.setRetryCount(order.getRetryCount());
+        copy.setVersion(order.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,332 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams orders for {@code GET /api/orders/export} as NDJSON (one order with its items per
+ * line) or CSV (one line per item). Orders and items come from a single join ordered by
+ * orderId, read through a server-side cursor {@code fetch-size} rows at a time, so only the
+ * order being written is ever held in memory. The cursor needs a transaction (PostgreSQL only
+ * honours the fetch size with autocommit off), so the export runs in a read-only one.
+ * Archived orders are not in the table, so while archiving is on a range must start within
+ * {@code app.archive.min-age-ms} of now. Each export holds a connection for its whole run,
+ * so at most {@code max-concurrent} run at once.
+ */
+@Service
+public class OrderExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    private static final String SELECT =
+        "SELECT o.order_id, o.customer_id, o.customer_email, o.status, o.total_amount, o.shipping_address, "
+            + "o.created_at, o.updated_at, o.failure_reason, o.retry_count, o.version, "
+            + "i.product_id, i.product_name, i.quantity, i.price "
+            + "FROM orders o LEFT JOIN order_items i ON i.order_order_id = o.order_id "
+            + "WHERE o.created_at >= ? AND o.created_at < ?";
+    
+    private static final String ORDER_BY = " ORDER BY o.order_id, i.line_number";
+    
+    private static final String CSV_HEADER = "order_id,customer_id,customer_email,status,total_amount,"
+        + "shipping_address,created_at,updated_at,failure_reason,retry_count,version,"
+        + "product_id,product_name,quantity,price\n";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.orders.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${app.orders.export.max-concurrent:4}")
+    private int maxConcurrent;
+    
+    @Value("${app.archive.enabled:false}")
+    private boolean archiveEnabled;
+    
+    @Value("${app.archive.min-age-ms:604800000}")
+    private long archiveMinAgeMs;
+    
+    private Semaphore running;
+    
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate readOnly;
+    
+    private Counter ndjsonRows;
+    private Counter csvRows;
+    private DistributionSummary rowsPerSecond;
+    
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        running = new Semaphore(maxConcurrent);
+        
+        ndjsonRows = meterRegistry.counter("order.export.rows", "format", "ndjson");
+        csvRows = meterRegistry.counter("order.export.rows", "format", "csv");
+        rowsPerSecond = DistributionSummary.builder("order.export.throughput")
+            .description("Orders per second of each finished export")
+            .baseUnit("rows/s")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * The earliest {@code from} an export can start at without missing archived orders, or null
+     * when nothing is archived. Orders are archived by last update, which is never before creation.
+     */
+    public LocalDateTime earliestFrom() {
+        return archiveEnabled ? LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(archiveMinAgeMs)) : null;
+    }
+    
+    /**
+     * Takes one of the {@code max-concurrent} export slots, or returns false when all are in use.
+     * A caller that gets one must pass it back through {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        return running.tryAcquire();
+    }
+    
+    public void release() {
+        running.release();
+    }
+    
+    /**
+     * Writes every order created in {@code [from, to)} whose status is one of {@code statuses}
+     * (all statuses when empty) to {@code out}. Returns the number of orders written.
+     */
+    public long export(Collection<OrderStatus> statuses, LocalDateTime from, LocalDateTime to,
+                       Format format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND o.status IN (");
+            for (OrderStatus status : statuses) {
+                sql.append(args.size() > 2 ? ", ?" : "?");
+                args.add(status.name());
+            }
+            sql.append(')');
+        }
+        sql.append(ORDER_BY);
+        
+        long start = System.nanoTime();
+        OrderSink sink = format == Format.CSV ? new CsvSink(out) : new NdjsonSink(out);
+        Counter rows = format == Format.CSV ? csvRows : ndjsonRows;
+        Grouper grouper = new Grouper(sink, rows);
+        try {
+            readOnly.executeWithoutResult(status ->
+                cursorTemplate.query(sql.toString(), grouper::processRow, args.toArray()));
+            grouper.finish();
+            sink.close();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed with the transaction
+            throw e.getCause();
+        }
+        
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-3);
+        rowsPerSecond.record(grouper.written / seconds);
+        logger.info("Exported {} orders as {} in {} ms ({} orders/s)",
+            grouper.written, format, Math.round(seconds * 1000), Math.round(grouper.written / seconds));
+        return grouper.written;
+    }
+    
+    /**
+     * Folds consecutive join rows of one order back into that order and hands it to the sink
+     * when the next order starts.
+     */
+    private static class Grouper {
+        
+        private final OrderSink sink;
+        private final Counter rows;
+        private Order current;
+        long written;
+        
+        Grouper(OrderSink sink, Counter rows) {
+            this.sink = sink;
+            this.rows = rows;
+        }
+        
+        void processRow(ResultSet rs) throws SQLException {
+            String orderId = rs.getString("order_id");
+            if (current == null || !current.getOrderId().equals(orderId)) {
+                finish();
+                current = readOrder(rs);
+            }
+            String productId = rs.getString("product_id");
+            if (productId != null) {
+                current.getItems().add(new OrderItem(productId, rs.getString("product_name"),
+                    rs.getObject("quantity", Integer.class), rs.getObject("price", Double.class)));
+            }
+        }
+        
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                sink.write(current);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows.increment();
+            written++;
+            current = null;
+        }
+        
+        private static Order readOrder(ResultSet rs) throws SQLException {
+            Order order = new Order();
+            order.setOrderId(rs.getString("order_id"));
+            order.setCustomerId(rs.getString("customer_id"));
+            order.setCustomerEmail(rs.getString("customer_email"));
+            String status = rs.getString("status");
+            order.setStatus(status == null ? null : OrderStatus.valueOf(status));
+            order.setTotalAmount(rs.getObject("total_amount", Double.class));
+            order.setShippingAddress(rs.getString("shipping_address"));
+            order.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+            order.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+            order.setFailureReason(rs.getString("failure_reason"));
+            order.setRetryCount(rs.getObject("retry_count", Integer.class));
+            order.setVersion(rs.getObject("version", Long.class));
+            order.setItems(new ArrayList<>());
+            return order;
+        }
+        
+        private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+            return timestamp == null ? null : timestamp.toLocalDateTime();
+        }
+    }
+    
+    private interface OrderSink {
+        
+        void write(Order order) throws IOException;
+        
+        void close() throws IOException;
+    }
+    
+    private class NdjsonSink implements OrderSink {
+        
+        private final JsonGenerator generator;
+        
+        NdjsonSink(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+        }
+        
+        @Override
+        public void write(Order order) throws IOException {
+            generator.writeObject(order);
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+    
+    private static class CsvSink implements OrderSink {
+        
+        private final Writer writer;
+        
+        CsvSink(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writer.write(CSV_HEADER);
+        }
+        
+        @Override
+        public void write(Order order) throws IOException {
+            if (order.getItems().isEmpty()) {
+                writeLine(order, null);
+            }
+            for (OrderItem item : order.getItems()) {
+                writeLine(order, item);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+        
+        private void writeLine(Order order, OrderItem item) throws IOException {
+            field(order.getOrderId(), ',');
+            field(order.getCustomerId(), ',');
+            field(order.getCustomerEmail(), ',');
+            field(order.getStatus(), ',');
+            field(order.getTotalAmount(), ',');
+            field(order.getShippingAddress(), ',');
+            field(order.getCreatedAt(), ',');
+            field(order.getUpdatedAt(), ',');
+            field(order.getFailureReason(), ',');
+            field(order.getRetryCount(), ',');
+            field(order.getVersion(), ',');
+            field(item == null ? null : item.getProductId(), ',');
+            field(item == null ? null : item.getProductName(), ',');
+            field(item == null ? null : item.getQuantity(), ',');
+            field(item == null ? null : item.getPrice(), '\n');
+        }
+        
+        // RFC 4180: quote a field that holds a separator, quote or line break, doubling its quotes
+        private void field(Object value, char terminator) throws IOException {
+            if (value != null) {
+                String text = value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(text.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(text);
+                }
+            }
+            writer.write(terminator);
+        }
+    }
+}
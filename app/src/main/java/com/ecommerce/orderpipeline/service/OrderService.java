@@ -0,0 +1,147 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.archive.OrderArchive;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventOutbox;
+import com.ecommerce.orderpipeline.kafka.producer.OutboxRelay;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class OrderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private OrderStatusWriter statusWriter;
+    
+    @Autowired
+    private OrderEventOutbox eventOutbox;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    /**
+     * Checks the order and queues its VALIDATED status. The future completes once the status
+     * update has committed.
+     */
+    public CompletableFuture<Order> validateOrder(Order order) {
+        logger.debug("Validating order: {}", order.getOrderId());
+        
+        checkOrder(order);
+        
+        order.setStatus(OrderStatus.VALIDATED);
+        return statusWriter.write(order).thenApply(savedOrder -> {
+            logger.debug("Order validation successful: {}", order.getOrderId());
+            return savedOrder;
+        });
+    }
+    
+    public CompletableFuture<Order> confirmOrder(Order order) {
+        logger.debug("Confirming order: {}", order.getOrderId());
+        
+        order.setStatus(OrderStatus.CONFIRMED);
+        return statusWriter.write(order).thenApply(confirmedOrder -> {
+            logger.debug("Order confirmed successfully: {}", order.getOrderId());
+            return confirmedOrder;
+        });
+    }
+    
+    /**
+     * Writes an already-checked batch of orders as VALIDATED in one status batch.
+     */
+    public List<Order> validateOrders(List<Order> orders) {
+        List<Order> savedOrders = writeStatuses(orders, OrderStatus.VALIDATED);
+        logger.info("Validated batch of {} orders", savedOrders.size());
+        
+        return savedOrders;
+    }
+    
+    public List<Order> confirmOrders(List<Order> orders) {
+        List<Order> confirmedOrders = writeStatuses(orders, OrderStatus.CONFIRMED);
+        logger.info("Confirmed batch of {} orders", confirmedOrders.size());
+        
+        return confirmedOrders;
+    }
+    
+    public void checkOrder(Order order) {
+        // Simulate validation logic
+        if (order.getCustomerId() == null || order.getCustomerId().isEmpty()) {
+            throw new RuntimeException("Invalid customer ID");
+        }
+        
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new RuntimeException("Order must contain items");
+        }
+        
+        if (order.getTotalAmount() == null || order.getTotalAmount() <= 0) {
+            throw new RuntimeException("Invalid order total");
+        }
+    }
+    
+    public Order getOrder(String orderId) {
+        return orderRepository.findWithItemsByOrderId(orderId)
+                .or(() -> orderArchive.find(orderId))
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    }
+    
+    /**
+     * Cached read for API polling; only loads from the database when the cached copy is
+     * missing or older than {@code minVersion}.
+     */
+    public Order getOrder(String orderId, Long minVersion) {
+        return orderCache.get(orderId, minVersion);
+    }
+    
+    /**
+     * Saves a new order and records its OrderPlaced event in the outbox in the same
+     * transaction; {@link OutboxRelay} publishes it, so placing an order never waits on Kafka.
+     */
+    @Transactional
+    public Order placeOrder(Order order) {
+        order.setStatus(OrderStatus.PLACED);
+        // Flush so the event carries the version the insert assigned
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        eventOutbox.orderPlaced(new OrderEvent(
+            savedOrder.getOrderId(),
+            savedOrder,
+            OrderStatus.PLACED,
+            "Order placed successfully",
+            "OrderAPI"
+        ));
+        AfterCommit.run(() -> orderCache.put(savedOrder));
+        return savedOrder;
+    }
+    
+    private List<Order> writeStatuses(List<Order> orders, OrderStatus status) {
+        List<CompletableFuture<Order>> writes = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            order.setStatus(status);
+            writes.add(statusWriter.write(order));
+        }
+        // The whole batch is queued, so there is nothing to gain from waiting for the timer
+        statusWriter.flush();
+        
+        List<Order> savedOrders = new ArrayList<>(writes.size());
+        for (CompletableFuture<Order> write : writes) {
+            savedOrders.add(write.join());
+        }
+        return savedOrders;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.archive.OrderArchive;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.dto.OrderStatusView;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory view of each order's latest status, fed by the pipeline's own events
+ * so status polls rarely reach the database. Only misses load the order row; an order that
+ * does not exist is remembered for {@code negative-ttl-ms}, so polling an unknown ID cannot
+ * turn every request into a query.
+ */
+@Component
+public class OrderStatusReadModel {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.orders.status-cache.max-size:100000}")
+    private long maxSize;
+    
+    @Value("${app.orders.status-cache.expire-after-write-ms:1800000}")
+    private long expireAfterWriteMs;
+    
+    @Value("${app.orders.status-cache.negative-ttl-ms:5000}")
+    private long negativeTtlMs;
+    
+    private Cache<String, OrderStatusView> cache;
+    private Cache<String, Boolean> missing;
+    
+    // Long-poll callbacks waiting for an order's next change
+    private final Map<String, List<Runnable>> watchers = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWriteMs, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "order-status");
+        missing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtlMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+    
+    public Optional<OrderStatusView> get(String orderId) {
+        OrderStatusView view = cache.getIfPresent(orderId);
+        if (view != null) {
+            return Optional.of(view);
+        }
+        if (missing.getIfPresent(orderId) != null) {
+            return Optional.empty();
+        }
+        // Loaded outside the cache: a mapping function runs under the map's bin lock, which would
+        // pin a virtual thread to its carrier for the whole query. A racing load just loses to putIfAbsent.
+        view = load(orderId);
+        if (view == null) {
+            missing.put(orderId, Boolean.TRUE);
+            return Optional.empty();
+        }
+        OrderStatusView raced = cache.asMap().putIfAbsent(orderId, view);
+        return Optional.of(raced != null ? raced : view);
+    }
+    
+    /**
+     * Applies a status event. Topics are consumed independently, so events can arrive out of
+     * saga order. A higher order version wins; between equal versions (stages that do not
+     * write the order row) the status further along the saga wins.
+     */
+    public void apply(OrderEvent event) {
+        if (event.getOrderId() == null || event.getStatus() == null) {
+            return;
+        }
+        
+        OrderStatusView next = new OrderStatusView(
+            event.getOrderId(),
+            event.getStatus(),
+            event.getOrderVersion(),
+            event.getMessage(),
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault())
+        );
+        boolean[] changed = new boolean[1];
+        cache.asMap().compute(event.getOrderId(), (orderId, current) -> {
+            if (current != null && !isNewer(next, current)) {
+                return current;
+            }
+            changed[0] = true;
+            return next;
+        });
+        missing.invalidate(event.getOrderId());
+        
+        if (changed[0]) {
+            List<Runnable> waiting = watchers.remove(event.getOrderId());
+            if (waiting != null) {
+                waiting.forEach(Runnable::run);
+            }
+        }
+    }
+    
+    public void watch(String orderId, Runnable onChange) {
+        watchers.computeIfAbsent(orderId, id -> new CopyOnWriteArrayList<>()).add(onChange);
+    }
+    
+    public void unwatch(String orderId, Runnable onChange) {
+        watchers.computeIfPresent(orderId, (id, waiting) -> {
+            waiting.remove(onChange);
+            return waiting.isEmpty() ? null : waiting;
+        });
+    }
+    
+    public static String etagOf(OrderStatusView view) {
+        return "\"" + view.getVersion() + "-" + view.getStatus() + "\"";
+    }
+    
+    private OrderStatusView load(String orderId) {
+        return orderRepository.findById(orderId)
+                .or(() -> orderArchive.find(orderId))
+                .map(order -> new OrderStatusView(
+                    order.getOrderId(),
+                    order.getStatus(),
+                    order.getVersion(),
+                    null,
+                    order.getUpdatedAt()))
+                .orElse(null);
+    }
+    
+    private static boolean isNewer(OrderStatusView next, OrderStatusView current) {
+        if (next.getVersion() != null && current.getVersion() != null
+                && !next.getVersion().equals(current.getVersion())) {
+            return next.getVersion() > current.getVersion();
+        }
+        // Saga position decides between events that carry the same order version
+        int nextRank = next.getStatus().getSagaRank();
+        int currentRank = current.getStatus().getSagaRank();
+        if (nextRank != currentRank) {
+            return nextRank > currentRank;
+        }
+        return next.getVersion() != null && current.getVersion() == null;
+    }
+}
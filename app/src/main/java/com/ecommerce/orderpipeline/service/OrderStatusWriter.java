@@ -0,0 +1,260 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind path for status transitions. Instead of merging the whole entity (a SELECT,
+ * an UPDATE and a rewrite of the item collection), each change is buffered and written as a
+ * targeted UPDATE in a JDBC batch, flushed when {@code batch-size} orders are pending or every
+ * {@code flush-interval-ms}. Several changes to one order in the same batch collapse into one
+ * write. The returned future completes only after the batch has committed, so callers ack
+ * their offset then and a crash can never drop an acknowledged status change.
+ *
+ * <p>Writes never move an order backwards in the saga: the UPDATE only applies while the stored
+ * status ranks below the new one (or is the same status), so a redelivered or retried stage
+ * cannot turn a confirmed or cancelled order back into a validated one. Such a superseded write
+ * leaves the row alone and completes normally, since the order has already moved on. Futures are
+ * completed on the callback executor once the flush lock is released, so callers' continuations
+ * never hold up the next batch.
+ */
+@Component
+public class OrderStatusWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusWriter.class);
+    
+    private static final String UPDATE_STATUS =
+        "UPDATE orders SET status = ?, updated_at = ?, version = version + 1"
+            + " WHERE order_id = ? AND (status = ? OR " + sagaRankOf("status") + " < ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private OrderCache orderCache;
+    
+    @Autowired
+    private CallbackExecutor callbackExecutor;
+    
+    @Value("${app.orders.status-writer.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.orders.status-writer.flush-interval-ms:10}")
+    private long flushIntervalMs;
+    
+    private Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    
+    // Held while a batch is written so two flushes can never reorder writes to the same order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private ScheduledExecutorService flusher;
+    
+    @PostConstruct
+    public void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-status-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+    
+    /**
+     * Queues the order's current status for writing. The order's updatedAt is advanced now;
+     * its version once the write lands, by one per row written however many changes collapsed.
+     */
+    public CompletableFuture<Order> write(Order order) {
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        CompletableFuture<Order> future = new CompletableFuture<>();
+        boolean full;
+        synchronized (this) {
+            pending.computeIfAbsent(order.getOrderId(), id -> new PendingWrite()).add(order, future);
+            full = pending.size() >= batchSize;
+        }
+        if (full) {
+            flush();
+        }
+        return future;
+    }
+    
+    public void flush() {
+        List<Runnable> completions = List.of();
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+            completions = execute(batch);
+        } catch (Exception e) {
+            logger.error("Unexpected error flushing order status updates", e);
+        } finally {
+            flushLock.unlock();
+        }
+        for (Runnable completion : completions) {
+            callbackExecutor.get().execute(completion);
+        }
+    }
+    
+    // Returns how to complete each write's futures; callers run them after releasing the flush lock
+    private List<Runnable> execute(List<PendingWrite> batch) {
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        int[][] rowCounts;
+        Set<String> existing;
+        try {
+            rowCounts = transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(UPDATE_STATUS, batch, batch.size(), (ps, write) -> {
+                    Order order = write.latest();
+                    ps.setString(1, order.getStatus().name());
+                    ps.setTimestamp(2, Timestamp.valueOf(order.getUpdatedAt()));
+                    ps.setString(3, order.getOrderId());
+                    ps.setString(4, order.getStatus().name());
+                    ps.setInt(5, order.getStatus().getSagaRank());
+                }));
+            existing = existing(batch, rowCounts[0]);
+        } catch (Exception e) {
+            logger.error("Status update batch of {} orders failed: {}", batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                completions.add(() -> write.fail(e));
+            }
+            return completions;
+        }
+        
+        int[] rows = rowCounts[0];
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            if (rows[i] == 0 && existing.contains(write.latest().getOrderId())) {
+                logger.debug("Order {} is already past {}, status left as it is",
+                    write.latest().getOrderId(), write.latest().getStatus());
+                completions.add(write::complete);
+            } else if (rows[i] == 0) {
+                RuntimeException error = new RuntimeException("Order not found: " + write.latest().getOrderId());
+                completions.add(() -> write.fail(error));
+            } else if (rows[i] == Statement.EXECUTE_FAILED) {
+                RuntimeException error = new RuntimeException(
+                    "Status update failed for order: " + write.latest().getOrderId());
+                completions.add(() -> write.fail(error));
+            } else {
+                write.advanceVersion();
+                orderCache.put(write.latest());
+                completions.add(write::complete);
+            }
+        }
+        logger.debug("Flushed status updates for {} orders", batch.size());
+        return completions;
+    }
+    
+    // Tells a write the saga guard skipped from one whose order is gone; only runs when a row was not updated
+    private Set<String> existing(List<PendingWrite> batch, int[] rows) {
+        List<String> unchanged = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (rows[i] == 0) {
+                unchanged.add(batch.get(i).latest().getOrderId());
+            }
+        }
+        if (unchanged.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(unchanged.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT order_id FROM orders WHERE order_id IN (" + placeholders + ")", String.class, unchanged.toArray()));
+    }
+    
+    // Statuses are stored by name, so the rank is spelled out in SQL from OrderStatus
+    private static String sagaRankOf(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (OrderStatus status : OrderStatus.values()) {
+            sql.append(" WHEN '").append(status.name()).append("' THEN ").append(status.getSagaRank());
+        }
+        return sql.append(" END").toString();
+    }
+    
+    private static class PendingWrite {
+        
+        private final List<Order> orders = new ArrayList<>(1);
+        private final List<CompletableFuture<Order>> futures = new ArrayList<>(1);
+        
+        void add(Order order, CompletableFuture<Order> future) {
+            orders.add(order);
+            futures.add(future);
+        }
+        
+        // The furthest status along the saga wins, so a late, stale change cannot undo a newer one
+        Order latest() {
+            Order latest = orders.get(0);
+            for (Order order : orders) {
+                if (order.getStatus().getSagaRank() >= latest.getStatus().getSagaRank()) {
+                    latest = order;
+                }
+            }
+            return latest;
+        }
+        
+        // The row's version went up once, however many changes collapsed into the write
+        void advanceVersion() {
+            Long current = null;
+            for (Order order : orders) {
+                if (order.getVersion() != null && (current == null || order.getVersion() > current)) {
+                    current = order.getVersion();
+                }
+            }
+            if (current == null) {
+                return;
+            }
+            for (Order order : orders) {
+                order.setVersion(current + 1);
+            }
+        }
+        
+        void complete() {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(orders.get(i));
+            }
+        }
+        
+        void fail(Throwable error) {
+            for (CompletableFuture<Order> future : futures) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking payment gateway. The future completes with true when the charge is approved,
+ * false when it is declined, and exceptionally when the gateway could not be reached.
+ */
+public interface PaymentGateway {
+    
+    CompletableFuture<Boolean> authorize(Order order);
+}
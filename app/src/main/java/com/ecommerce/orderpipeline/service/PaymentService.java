@@ -0,0 +1,131 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class PaymentService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    
+    // Key space in processed_events; matches the saga stage key
+    private static final String CHARGE = "payments";
+    
+    @Autowired
+    private PaymentGateway paymentGateway;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+    
+    @Autowired
+    private CallbackExecutor callbackExecutor;
+    
+    @Value("${app.payment.timeout:5000}")
+    private long paymentTimeout;
+    
+    @Value("${app.payment.max-concurrent-calls:200}")
+    private int maxConcurrentCalls;
+    
+    @Value("${app.payment.max-wait-ms:5000}")
+    private long maxWaitMs;
+    
+    private Semaphore bulkhead;
+    
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        Gauge.builder("order.payment.in-flight", bulkhead, b -> maxConcurrentCalls - b.availablePermits())
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Charges the order without blocking on the gateway. At most {@code max-concurrent-calls}
+     * charges are in flight; when the bulkhead is full the caller (a consumer thread or fused
+     * worker) waits up to {@code max-wait-ms} for a slot, which holds back polling instead of
+     * failing the charge. If no slot frees up in time the future fails with a
+     * {@link RejectedExecutionException}: the order was never sent to the gateway, so callers
+     * redeliver it rather than treating it as a payment failure. Otherwise the future fails on
+     * decline, gateway error or timeout, and completes on the callback executor rather than the
+     * gateway's threads. An order that was already charged (a redelivered event) succeeds at
+     * once without calling the gateway again.
+     */
+    public CompletableFuture<Boolean> processPayment(Order order) {
+        logger.debug("Processing payment for order: {}, amount: {}", 
+            order.getOrderId(), order.getTotalAmount());
+        
+        if (eventDeduplicator.isProcessed(CHARGE, order.getOrderId())) {
+            logger.debug("Order {} already charged, skipping", order.getOrderId());
+            return CompletableFuture.completedFuture(true);
+        }
+        
+        if (!acquirePermit()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                maxConcurrentCalls + " gateway calls still in flight after " + maxWaitMs + "ms"));
+        }
+        
+        CompletableFuture<Boolean> response;
+        try {
+            response = paymentGateway.authorize(order);
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        // Free the slot where the call ends, so waiting callers never depend on the callback executor
+        return response
+            .orTimeout(paymentTimeout, TimeUnit.MILLISECONDS)
+            .whenComplete((approved, error) -> bulkhead.release())
+            .handleAsync((approved, error) -> {
+                if (error != null) {
+                    Throwable cause = Futures.unwrap(error);
+                    String reason = cause instanceof TimeoutException
+                        ? "Payment gateway timed out after " + paymentTimeout + "ms"
+                        : cause.getMessage();
+                    logger.error("Payment processing failed for order: {}: {}", order.getOrderId(), reason);
+                    throw new CompletionException(new RuntimeException("Payment processing failed: " + reason));
+                }
+                if (!approved) {
+                    throw new CompletionException(new RuntimeException("Payment gateway declined the transaction"));
+                }
+                
+                logger.debug("Payment processed successfully for order: {}", order.getOrderId());
+                try {
+                    eventDeduplicator.markProcessed(CHARGE, List.of(order.getOrderId()));
+                } catch (Exception e) {
+                    // The charge went through; failing the stage now would only charge again on retry
+                    logger.warn("Could not record payment of order {} as processed: {}", order.getOrderId(), e.getMessage());
+                }
+                return true;
+            }, callbackExecutor.get());
+    }
+    
+    private boolean acquirePermit() {
+        if (bulkhead.tryAcquire()) {
+            return true;
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.orderpipeline.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ShardRebalanceScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalanceScheduler.class);
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @Scheduled(fixedDelayString = "${app.inventory.sharding.rebalance-interval:10000}")
+    public void rebalanceShards() {
+        try {
+            shardedStockService.refreshShardedProducts();
+        } catch (Exception e) {
+            logger.warn("Unable to refresh sharded products: {}", e.getMessage());
+            return;
+        }
+        
+        for (String productId : shardedStockService.getShardedProductIds()) {
+            try {
+                shardedStockService.rebalance(productId);
+            } catch (Exception e) {
+                logger.warn("Unable to rebalance stock buckets for product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.InventoryShard;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import com.ecommerce.orderpipeline.repository.InventoryShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sharded stock for hot products. A sharded product's available quantity lives in
+ * N inventory_shards rows. Each reservation first tries the next bucket in turn, then the
+ * first one after it that can cover it and is not locked by another reservation (SKIP LOCKED
+ * needs a dialect that renders it, see application.yml), so concurrent reservations spread
+ * over the buckets instead of queueing on one. Only when no single bucket can cover it does it
+ * lock every bucket, in index order, and spill over several. Releases work the same way on
+ * reserved stock.
+ */
+@Service
+public class ShardedStockService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardedStockService.class);
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private InventoryShardRepository shardRepository;
+    
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+    
+    // productId -> shard count, refreshed from the database so other instances pick up changes.
+    // Only a hint for lock modes and rebalancing; reservations go by the locked product row
+    private final Map<String, Integer> shardCounts = new ConcurrentHashMap<>();
+    
+    // Where the next single-bucket pick starts, so picks rotate over the buckets
+    private final AtomicInteger nextBucket = new AtomicInteger();
+    
+    public boolean isSharded(String productId) {
+        return shardCounts.containsKey(productId);
+    }
+    
+    public Set<String> getShardedProductIds() {
+        return shardCounts.keySet();
+    }
+    
+    public void refreshShardedProducts() {
+        Map<String, Integer> latest = new ConcurrentHashMap<>();
+        for (Object[] row : inventoryRepository.findShardCounts()) {
+            latest.put((String) row[0], (Integer) row[1]);
+        }
+        shardCounts.putAll(latest);
+        shardCounts.keySet().retainAll(latest.keySet());
+    }
+    
+    /**
+     * Corrects the hint from a product row read under lock.
+     */
+    public void updateShardCount(String productId, int shardCount) {
+        if (shardCount > 0) {
+            shardCounts.put(productId, shardCount);
+        } else {
+            shardCounts.remove(productId);
+        }
+    }
+    
+    @Transactional
+    public boolean reserve(String productId, int quantity) {
+        int start = startBucket(productId);
+        List<InventoryShard> free = shardRepository.findCoveringBucketAt(productId, start, quantity);
+        if (free.isEmpty()) {
+            free = shardRepository.findCoveringBucket(productId, quantity, start, FIRST);
+        }
+        if (!free.isEmpty()) {
+            move(free.get(0), quantity);
+            return true;
+        }
+        return reserveAcrossShards(productId, quantity);
+    }
+    
+    /**
+     * Returns reserved stock to the buckets that hold it, so no bucket's reserved quantity
+     * ever goes negative.
+     */
+    @Transactional
+    public void release(String productId, int quantity) {
+        int start = startBucket(productId);
+        List<InventoryShard> holding = shardRepository.findReleasableBucketAt(productId, start, quantity);
+        if (holding.isEmpty()) {
+            holding = shardRepository.findReleasableBucket(productId, quantity, start, FIRST);
+        }
+        if (!holding.isEmpty()) {
+            move(holding.get(0), -quantity);
+            return;
+        }
+        
+        List<InventoryShard> shards = shardRepository.findAllByProductIdForUpdate(productId);
+        if (shards.isEmpty()) {
+            // Sharding was switched off, so the stock is back on the product row
+            shardCounts.remove(productId);
+            ProductInventory inventory = lockInventory(productId);
+            if (inventory != null) {
+                inventory.setAvailableQuantity(inventory.getAvailableQuantity() + quantity);
+                inventory.setReservedQuantity(inventory.getReservedQuantity() - quantity);
+            }
+            return;
+        }
+        
+        int remaining = quantity;
+        for (InventoryShard shard : shards) {
+            int share = Math.min(shard.getReservedQuantity(), remaining);
+            if (share > 0) {
+                move(shard, -share);
+                remaining -= share;
+            }
+        }
+        if (remaining > 0) {
+            logger.warn("Released {} more units of product {} than its buckets had reserved", remaining, productId);
+        }
+    }
+    
+    public long getAvailableQuantity(String productId) {
+        return shardRepository.sumAvailableQuantity(productId);
+    }
+    
+    public long getReservedQuantity(String productId) {
+        return shardRepository.sumReservedQuantity(productId);
+    }
+    
+    /**
+     * Moves a product's available stock into {@code shardCount} buckets. Takes the product
+     * row lock, so in-flight reservations finish first and later ones see the buckets.
+     */
+    @Transactional
+    public void enableSharding(String productId, int shardCount) {
+        if (shardCount < 2) {
+            throw new IllegalArgumentException("Shard count must be at least 2");
+        }
+        ProductInventory inventory = lockInventory(productId);
+        if (inventory == null) {
+            throw new RuntimeException("Product not found: " + productId);
+        }
+        if (inventory.isSharded()) {
+            throw new RuntimeException("Product already sharded: " + productId);
+        }
+        
+        int available = inventory.getAvailableQuantity();
+        List<InventoryShard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new InventoryShard(productId, i, share(available, shardCount, i), 0));
+        }
+        shardRepository.saveAll(shards);
+        
+        inventory.setAvailableQuantity(0);
+        inventory.setShardCount(shardCount);
+        AfterCommit.run(() -> shardCounts.put(productId, shardCount));
+        
+        logger.info("Sharded stock for product {} across {} buckets ({} units)", productId, shardCount, available);
+    }
+    
+    /**
+     * Folds a product's buckets back into its ProductInventory row.
+     */
+    @Transactional
+    public void disableSharding(String productId) {
+        ProductInventory inventory = lockInventory(productId);
+        if (inventory == null || !inventory.isSharded()) {
+            throw new RuntimeException("Product not sharded: " + productId);
+        }
+        
+        List<InventoryShard> shards = shardRepository.findAllByProductIdForUpdate(productId);
+        int available = 0;
+        int reserved = 0;
+        for (InventoryShard shard : shards) {
+            available += shard.getAvailableQuantity();
+            reserved += shard.getReservedQuantity();
+        }
+        shardRepository.deleteAllInBatch(shards);
+        
+        inventory.setAvailableQuantity(inventory.getAvailableQuantity() + available);
+        inventory.setReservedQuantity(inventory.getReservedQuantity() + reserved);
+        inventory.setShardCount(0);
+        AfterCommit.run(() -> shardCounts.remove(productId));
+        
+        logger.info("Merged {} stock buckets back into product {}", shards.size(), productId);
+    }
+    
+    /**
+     * Evens out available stock across a product's buckets so single-bucket picks keep succeeding.
+     */
+    @Transactional
+    public void rebalance(String productId) {
+        List<InventoryShard> shards = shardRepository.findAllByProductIdForUpdate(productId);
+        if (shards.size() < 2) {
+            return;
+        }
+        
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (InventoryShard shard : shards) {
+            total += shard.getAvailableQuantity();
+            min = Math.min(min, shard.getAvailableQuantity());
+            max = Math.max(max, shard.getAvailableQuantity());
+        }
+        if (max - min <= 1) {
+            return;
+        }
+        
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setAvailableQuantity(share(total, shards.size(), i));
+        }
+        logger.debug("Rebalanced {} units across {} buckets for product {}", total, shards.size(), productId);
+    }
+    
+    /**
+     * Spills a reservation over several buckets. Locks every bucket in index order and waits
+     * for them, so the sum it checks is exact and concurrent spills cannot deadlock.
+     */
+    private boolean reserveAcrossShards(String productId, int quantity) {
+        List<InventoryShard> shards = shardRepository.findAllByProductIdForUpdate(productId);
+        if (shards.isEmpty()) {
+            // Sharding was switched off, so the stock is back on the product row
+            shardCounts.remove(productId);
+            ProductInventory inventory = lockInventory(productId);
+            if (inventory == null || inventory.getAvailableQuantity() < quantity) {
+                return false;
+            }
+            inventory.setAvailableQuantity(inventory.getAvailableQuantity() - quantity);
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
+            return true;
+        }
+        
+        int total = 0;
+        for (InventoryShard shard : shards) {
+            total += shard.getAvailableQuantity();
+        }
+        if (total < quantity) {
+            return false;
+        }
+        
+        int remaining = quantity;
+        for (InventoryShard shard : shards) {
+            int share = Math.min(shard.getAvailableQuantity(), remaining);
+            if (share > 0) {
+                move(shard, share);
+                remaining -= share;
+            }
+        }
+        return true;
+    }
+    
+    private int startBucket(String productId) {
+        int shardCount = shardCounts.getOrDefault(productId, 0);
+        return shardCount > 0 ? Math.floorMod(nextBucket.getAndIncrement(), shardCount) : 0;
+    }
+    
+    // Buckets are managed entities locked by this transaction, so dirty checking writes them on commit
+    private static void move(InventoryShard shard, int reserved) {
+        shard.setAvailableQuantity(shard.getAvailableQuantity() - reserved);
+        shard.setReservedQuantity(shard.getReservedQuantity() + reserved);
+    }
+    
+    private ProductInventory lockInventory(String productId) {
+        List<ProductInventory> rows = inventoryRepository.findAllByProductIdForUpdate(List.of(productId));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
+    private static int share(int total, int buckets, int index) {
+        return total / buckets + (index < total % buckets ? 1 : 0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process gateway for local runs and load tests. Latency is log-normal, fitted to the
+ * configured median and p99; each call is independently declined, failed or left hanging
+ * (never answered, to exercise the client timeout) at the configured rates.
+ * Responses are completed from a small scheduler, so simulated latency costs no threads.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway.mode", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StubPaymentGateway.class);
+    
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+    
+    @Value("${app.payment.stub.latency-median-ms:80}")
+    private double latencyMedianMs;
+    
+    @Value("${app.payment.stub.latency-p99-ms:400}")
+    private double latencyP99Ms;
+    
+    @Value("${app.payment.stub.decline-rate:0.05}")
+    private double declineRate;
+    
+    @Value("${app.payment.stub.error-rate:0.0}")
+    private double errorRate;
+    
+    @Value("${app.payment.stub.hang-rate:0.0}")
+    private double hangRate;
+    
+    private ScheduledExecutorService scheduler;
+    
+    private double mu;
+    private double sigma;
+    
+    @PostConstruct
+    public void init() {
+        if (latencyMedianMs <= 0 || latencyP99Ms < latencyMedianMs) {
+            throw new IllegalArgumentException("Stub gateway latency needs 0 < median <= p99");
+        }
+        mu = Math.log(latencyMedianMs);
+        sigma = Math.log(latencyP99Ms / latencyMedianMs) / Z_99;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "stub-payment-gateway-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Using stub payment gateway: median {}ms, p99 {}ms, decline {}, error {}, hang {}",
+            latencyMedianMs, latencyP99Ms, declineRate, errorRate, hangRate);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> authorize(Order order) {
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        double outcome = random.nextDouble();
+        if (outcome < hangRate) {
+            return response;
+        }
+        
+        long latencyMs = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        boolean failed = outcome < hangRate + errorRate;
+        boolean approved = outcome >= hangRate + errorRate + declineRate;
+        scheduler.schedule(() -> {
+            if (failed) {
+                response.completeExceptionally(new RuntimeException("Stub payment gateway unavailable"));
+            } else {
+                response.complete(approved);
+            }
+        }, latencyMs, TimeUnit.MILLISECONDS);
+        return response;
+    }
+}
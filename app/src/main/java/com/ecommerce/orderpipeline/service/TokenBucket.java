@@ -0,0 +1,34 @@
+package com.ecommerce.orderpipeline.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the single timestamp at which the bucket would be full again
+ * (the generic cell rate algorithm). The rate is passed on every call, so a tightened limit
+ * applies to existing buckets at once.
+ */
+final class TokenBucket {
+    
+    // nanoTime from which the next token is free; at most burst intervals ahead of now
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    
+    /**
+     * Takes one token at {@code ratePerSecond} with room for {@code burst} back-to-back
+     * requests. Returns 0 if the token was taken, otherwise the nanoseconds until one is free.
+     */
+    long tryAcquire(long nowNanos, double ratePerSecond, int burst) {
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long tolerance = interval * Math.max(1, burst);
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + interval;
+            long wait = next - nowNanos - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.orderpipeline.archive;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testFind_ReadsOrdersBackFromSegments() throws Exception {
+        // Given
+        OrderArchive archive = createArchive();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            orders.add(createOrder(String.format("ORDER-%04d", i)));
+        }
+        archive.append(orders.subList(0, 300));
+        archive.append(orders.subList(300, 500));
+        
+        // When
+        Optional<Order> first = archive.find("ORDER-0000");
+        Optional<Order> middle = archive.find("ORDER-0299");
+        Optional<Order> last = archive.find("ORDER-0499");
+        
+        // Then
+        assertEquals(orders.get(0), first.get());
+        assertEquals(orders.get(299), middle.get());
+        assertEquals(orders.get(499), last.get());
+        assertTrue(archive.find("ORDER-0150x").isEmpty());
+        assertTrue(archive.find("ORDER-9999").isEmpty());
+    }
+    
+    @Test
+    void testRefresh_OpensSegmentsWrittenEarlier() throws Exception {
+        // Given
+        createArchive().append(List.of(createOrder("ORDER-1"), createOrder("ORDER-2")));
+        
+        // When
+        OrderArchive reopened = createArchive();
+        
+        // Then
+        assertEquals(OrderStatus.CONFIRMED, reopened.find("ORDER-2").get().getStatus());
+        assertEquals(2, reopened.find("ORDER-1").get().getItems().size());
+    }
+    
+    @Test
+    void testCompact_MergesNeighboursAndKeepsHighestVersion() throws Exception {
+        // Given
+        OrderArchive archive = createArchive();
+        for (int i = 0; i < 5; i++) {
+            archive.append(List.of(createOrder("ORDER-" + i)));
+        }
+        Order newer = createOrder("ORDER-1");
+        newer.setVersion(9L);
+        newer.setStatus(OrderStatus.CANCELLED);
+        archive.append(List.of(newer));
+        Order older = createOrder("ORDER-4");
+        older.setVersion(1L);
+        archive.append(List.of(older));
+        
+        // When
+        int removed = archive.compact(3, 3);
+        
+        // Then
+        assertEquals(4, removed);
+        OrderArchive reopened = createArchive();
+        assertEquals(3, ((List<?>) ReflectionTestUtils.getField(reopened, "segments")).size());
+        assertEquals(9L, reopened.find("ORDER-1").get().getVersion());
+        assertEquals(OrderStatus.CANCELLED, reopened.find("ORDER-1").get().getStatus());
+        assertEquals(4L, reopened.find("ORDER-4").get().getVersion());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(reopened.find("ORDER-" + i).isPresent());
+        }
+    }
+    
+    @Test
+    void testEncodeOrder_StoresStatusByName() {
+        // Given
+        Order order = createOrder("ORDER-1");
+        order.setStatus(OrderStatus.CANCELLED);
+        
+        // When
+        byte[] record = OrderEventCodec.encodeOrder(order);
+        
+        // Then
+        assertEquals(OrderEventCodec.ORDER_RECORD_VERSION, record[1]);
+        assertTrue(new String(record, StandardCharsets.ISO_8859_1).contains("CANCELLED"));
+        assertEquals(order, OrderEventCodec.decodeOrder(record));
+    }
+    
+    private OrderArchive createArchive() {
+        OrderArchive archive = new OrderArchive();
+        ReflectionTestUtils.setField(archive, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(archive, "directory", directory.toString());
+        // Small blocks so lookups cross block boundaries
+        ReflectionTestUtils.setField(archive, "blockBytes", 1024);
+        archive.init();
+        return archive;
+    }
+    
+    private Order createOrder(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("CUST-001");
+        order.setCustomerEmail("customer@example.com");
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setTotalAmount(59.97);
+        order.setShippingAddress("123 Main St");
+        order.setItems(List.of(new OrderItem("PROD-001", "Product 1", 2, 19.99),
+            new OrderItem("PROD-002", "Product 2", 1, 19.99)));
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_000_000));
+        order.setUpdatedAt(order.getCreatedAt().plusSeconds(3));
+        order.setRetryCount(0);
+        order.setVersion(4L);
+        return order;
+    }
+}
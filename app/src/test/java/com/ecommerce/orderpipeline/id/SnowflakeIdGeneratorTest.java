@@ -0,0 +1,77 @@
+package com.ecommerce.orderpipeline.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+    
+    @Test
+    void testNextId_StrictlyIncreasingAsStrings() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        
+        // When & Then
+        String previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.nextId();
+            assertEquals(13, next.length());
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+    
+    @Test
+    void testNextId_UniqueAcrossThreads() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        // Then
+        assertEquals(400_000, ids.size());
+    }
+    
+    @Test
+    void testParse_RecoversTimestampAndWorker() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513);
+        long before = System.currentTimeMillis();
+        
+        // When
+        long id = SnowflakeIdGenerator.parse(generator.nextId());
+        
+        // Then
+        assertEquals(513, SnowflakeIdGenerator.workerId(id));
+        assertTrue(SnowflakeIdGenerator.timestampMillis(id) >= before);
+        assertTrue(SnowflakeIdGenerator.timestampMillis(id) <= System.currentTimeMillis() + 1000);
+    }
+    
+    @Test
+    void testConstructor_RejectsWorkerOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class AckTrackerTest {
+    
+    private final AckTracker ackTracker = new AckTracker();
+    
+    private final ConsumerSeekCallback seeker = mock(ConsumerSeekCallback.class);
+    
+    @Test
+    void testTrack_OutOfOrderAckWaitsForEarlierOffsets() {
+        // Given
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        Acknowledgment third = mock(Acknowledgment.class);
+        Acknowledgment trackedFirst = ackTracker.track("orders.placed", 0, 10, first, seeker);
+        Acknowledgment trackedSecond = ackTracker.track("orders.placed", 0, 11, second, seeker);
+        Acknowledgment trackedThird = ackTracker.track("orders.placed", 0, 12, third, seeker);
+        
+        // When
+        trackedThird.acknowledge();
+        trackedSecond.acknowledge();
+        
+        // Then
+        verifyNoInteractions(first, second, third);
+        assertEquals(3, ackTracker.pending(new TopicPartition("orders.placed", 0)));
+        
+        // When
+        trackedFirst.acknowledge();
+        
+        // Then
+        verify(third).acknowledge();
+        verifyNoInteractions(first, second);
+        assertEquals(0, ackTracker.pending(new TopicPartition("orders.placed", 0)));
+    }
+    
+    @Test
+    void testNack_RewindsToLowestUncommittedOffset() {
+        // Given
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        Acknowledgment third = mock(Acknowledgment.class);
+        Acknowledgment trackedFirst = ackTracker.track("orders.placed", 0, 10, first, seeker);
+        Acknowledgment trackedSecond = ackTracker.track("orders.placed", 0, 11, second, seeker);
+        Acknowledgment trackedThird = ackTracker.track("orders.placed", 0, 12, third, seeker);
+        trackedFirst.acknowledge();
+        
+        // When
+        trackedThird.nack(0);
+        
+        // Then
+        verify(first).acknowledge();
+        verify(seeker).seek("orders.placed", 0, 11);
+        assertEquals(0, ackTracker.pending(new TopicPartition("orders.placed", 0)));
+        
+        // When: a record left from before the seek, then the redelivered one, then a late ack
+        Acknowledgment stale = ackTracker.track("orders.placed", 0, 13, mock(Acknowledgment.class), seeker);
+        Acknowledgment redelivered = mock(Acknowledgment.class);
+        Acknowledgment trackedRedelivered = ackTracker.track("orders.placed", 0, 11, redelivered, seeker);
+        trackedSecond.acknowledge();
+        
+        // Then
+        assertNull(stale);
+        verifyNoInteractions(second);
+        trackedRedelivered.acknowledge();
+        verify(redelivered).acknowledge();
+    }
+    
+    @Test
+    void testRevoked_LateAckIsDropped() {
+        // Given
+        Acknowledgment ack = mock(Acknowledgment.class);
+        Acknowledgment tracked = ackTracker.track("orders.placed", 1, 5, ack, seeker);
+        
+        // When
+        ackTracker.revoked(List.of(new TopicPartition("orders.placed", 1)));
+        tracked.acknowledge();
+        
+        // Then
+        verifyNoInteractions(ack);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeyOrderedDispatcherTest {
+    
+    private static final TopicPartition PARTITION = new TopicPartition("orders.placed", 0);
+    
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+    
+    @Mock
+    private MessageListenerContainer container;
+    
+    @InjectMocks
+    private KeyOrderedDispatcher dispatcher;
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger ran = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "executionThreads", new ExecutionThreads(false));
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "lanes", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxInFlightPerPartition", 4);
+        dispatcher.init();
+        when(registry.getListenerContainers()).thenReturn(List.of(container));
+        when(container.getAssignedPartitions()).thenReturn(List.of(PARTITION));
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void testDispatch_PausesPartitionAtLimitAndResumesAtHalf() throws Exception {
+        // Given: the lane is busy, so every record stays in flight
+        dispatcher.dispatch("orders.placed", 0, "ORDER-1", this::blocked);
+        for (int i = 0; i < 2; i++) {
+            dispatcher.dispatch("orders.placed", 0, "ORDER-1", ran::incrementAndGet);
+        }
+        verify(container, never()).pausePartition(any());
+        
+        // When
+        dispatcher.dispatch("orders.placed", 0, "ORDER-1", ran::incrementAndGet);
+        
+        // Then: the consumer thread was not held, and the partition was paused instead
+        verify(container).pausePartition(PARTITION);
+        release.countDown();
+        verify(container, timeout(1000)).resumePartition(PARTITION);
+        waitFor(() -> ran.get() == 3);
+    }
+    
+    @Test
+    void testRevoked_DropsQueuedTasksAndLiftsPause() throws Exception {
+        // Given
+        dispatcher.dispatch("orders.placed", 0, "ORDER-1", this::blocked);
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch("orders.placed", 0, "ORDER-1", ran::incrementAndGet);
+        }
+        verify(container).pausePartition(PARTITION);
+        
+        // When
+        dispatcher.revoked(List.of(PARTITION));
+        release.countDown();
+        
+        // Then
+        verify(container).resumePartition(PARTITION);
+        dispatcher.dispatch("orders.placed", 0, "ORDER-1", ran::incrementAndGet);
+        waitFor(() -> ran.get() == 1);
+        Thread.sleep(50);
+        assertEquals(1, ran.get());
+    }
+    
+    private void blocked() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
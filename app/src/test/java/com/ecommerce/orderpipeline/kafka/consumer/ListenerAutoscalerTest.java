@@ -0,0 +1,104 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenerAutoscalerTest {
+    
+    private ListenerAutoscaler autoscaler;
+    
+    @BeforeEach
+    void setUp() {
+        autoscaler = new ListenerAutoscaler();
+        ReflectionTestUtils.setField(autoscaler, "minConcurrency", 1);
+        ReflectionTestUtils.setField(autoscaler, "maxConcurrency", 12);
+        ReflectionTestUtils.setField(autoscaler, "targetDrainSeconds", 30.0);
+        ReflectionTestUtils.setField(autoscaler, "scaleUpLag", 1000L);
+        ReflectionTestUtils.setField(autoscaler, "scaleDownLag", 100L);
+        ReflectionTestUtils.setField(autoscaler, "scaleDownUtilization", 0.3);
+        ReflectionTestUtils.setField(autoscaler, "stableIntervals", 3);
+        ReflectionTestUtils.setField(autoscaler, "maxPartitions", 48);
+    }
+    
+    @Test
+    void testWantedConcurrency_BehindForStableIntervalsAtMostDoubles() {
+        // Given
+        ListenerAutoscaler.StageState state = state(4, 12, 50_000, 100, 0.9);
+        
+        // When
+        int first = autoscaler.wantedConcurrency(state);
+        int second = autoscaler.wantedConcurrency(state);
+        int third = autoscaler.wantedConcurrency(state);
+        
+        // Then: 500s to drain against a 30s target, capped at double
+        assertEquals(4, first);
+        assertEquals(4, second);
+        assertEquals(8, third);
+        assertEquals(12, state.recommendedPartitions);
+    }
+    
+    @Test
+    void testWantedConcurrency_IdleShrinksByOneAndNotBelowMin() {
+        // Given
+        ListenerAutoscaler.StageState state = state(2, 12, 10, 50, 0.1);
+        autoscaler.wantedConcurrency(state);
+        autoscaler.wantedConcurrency(state);
+        
+        // When
+        int wanted = autoscaler.wantedConcurrency(state);
+        state.concurrency = 1;
+        int atMin = autoscaler.wantedConcurrency(state);
+        
+        // Then
+        assertEquals(1, wanted);
+        assertEquals(1, atMin);
+    }
+    
+    @Test
+    void testWantedConcurrency_MixedReadingsResetTheStreak() {
+        // Given
+        ListenerAutoscaler.StageState state = state(4, 12, 50_000, 100, 0.9);
+        autoscaler.wantedConcurrency(state);
+        autoscaler.wantedConcurrency(state);
+        
+        // When: one calm read in between
+        state.lag = 500;
+        state.drainSeconds = 5;
+        autoscaler.wantedConcurrency(state);
+        state.lag = 50_000;
+        state.drainSeconds = 500;
+        int wanted = autoscaler.wantedConcurrency(state);
+        
+        // Then
+        assertEquals(4, wanted);
+    }
+    
+    @Test
+    void testTargetConcurrency_CappedByPartitionsLeftByOtherInstances() {
+        // Given
+        ListenerAutoscaler.StageState state = state(4, 12, 50_000, 100, 0.9);
+        state.otherConsumers = 6;
+        
+        // When
+        int target = autoscaler.targetConcurrency(state, 8, 12);
+        
+        // Then
+        assertEquals(6, target);
+        assertEquals(1, autoscaler.targetConcurrency(state, 8, 6));
+    }
+    
+    private static ListenerAutoscaler.StageState state(int concurrency, int partitions, long lag,
+                                                       double throughput, double utilization) {
+        ListenerAutoscaler.StageState state = new ListenerAutoscaler.StageState(SagaStage.PAYMENT, "inventory.reserved");
+        state.concurrency = concurrency;
+        state.partitions = partitions;
+        state.lag = lag;
+        state.throughput = throughput;
+        state.utilization = utilization;
+        state.drainSeconds = lag / throughput;
+        return state;
+    }
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.dto.ReservationResult;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventProducer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventBatchConsumerTest {
+    
+    @Mock
+    private OrderService orderService;
+    
+    @Mock
+    private InventoryService inventoryService;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @Mock
+    private OrderEventProducer eventProducer;
+    
+    @Mock
+    private OrderFailureHandler failureHandler;
+    
+    @Mock
+    private OrderCache orderCache;
+    
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+    
+    @Mock
+    private Acknowledgment ack;
+    
+    @InjectMocks
+    private OrderEventBatchConsumer consumer;
+    
+    @Test
+    void testValidationBatch_SavesAcceptedOrdersTogetherAndRoutesBadRecord() {
+        // Given
+        Order first = createOrder("ORDER-1");
+        Order bad = createOrder("ORDER-2");
+        Order third = createOrder("ORDER-3");
+        // Lenient: the other orders pass through checkOrder unstubbed
+        lenient().doThrow(new IllegalArgumentException("Order must contain at least one item"))
+            .when(orderService).checkOrder(bad);
+        when(orderService.validateOrders(List.of(first, third))).thenReturn(List.of(first, third));
+        when(failureHandler.handleFailure(eq(SagaStage.VALIDATION), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendOrderValidatedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumeOrderPlacedBatch(List.of(event(first), event(bad), event(third)), ack);
+        
+        // Then
+        verify(orderService).validateOrders(List.of(first, third));
+        verify(failureHandler).handleFailure(eq(SagaStage.VALIDATION),
+            argThat(event -> event.getOrderId().equals("ORDER-2")),
+            eq("Order must contain at least one item"), eq(0));
+        verify(eventProducer).sendOrderValidatedEvents(argThat(events -> events.size() == 2
+            && events.stream().allMatch(event -> event.getStatus() == OrderStatus.VALIDATED)));
+        verify(ack).acknowledge();
+    }
+    
+    @Test
+    void testValidationBatch_FallsBackToSingleSavesWhenBatchSaveFails() {
+        // Given
+        Order first = createOrder("ORDER-1");
+        Order second = createOrder("ORDER-2");
+        when(orderService.validateOrders(any())).thenThrow(new RuntimeException("Deadlock"));
+        when(orderService.validateOrder(first)).thenReturn(CompletableFuture.completedFuture(first));
+        when(orderService.validateOrder(second))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Stale version")));
+        when(failureHandler.handleFailure(eq(SagaStage.VALIDATION), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendOrderValidatedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumeOrderPlacedBatch(List.of(event(first), event(second)), ack);
+        
+        // Then
+        verify(failureHandler).handleFailure(eq(SagaStage.VALIDATION),
+            argThat(event -> event.getOrderId().equals("ORDER-2")), eq("Stale version"), eq(0));
+        verify(eventProducer).sendOrderValidatedEvents(argThat(events -> events.size() == 1
+            && events.get(0).getOrderId().equals("ORDER-1")));
+        verify(ack).acknowledge();
+    }
+    
+    @Test
+    void testBatch_NotAcknowledgedWhenFailureRoutingFails() {
+        // Given
+        Order bad = createOrder("ORDER-1");
+        doThrow(new IllegalArgumentException("Order must contain at least one item"))
+            .when(orderService).checkOrder(bad);
+        when(failureHandler.handleFailure(eq(SagaStage.VALIDATION), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Retry topic unavailable")));
+        when(eventProducer.sendOrderValidatedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When & Then
+        assertThrows(CompletionException.class,
+            () -> consumer.consumeOrderPlacedBatch(List.of(event(bad)), ack));
+        verify(ack, never()).acknowledge();
+    }
+    
+    @Test
+    void testInventoryBatch_ReservesInOneCallAndRoutesShortfall() {
+        // Given
+        Order first = createOrder("ORDER-1");
+        Order second = createOrder("ORDER-2");
+        when(inventoryService.reserveInventory(List.of(first, second))).thenReturn(List.of(
+            ReservationResult.success("ORDER-1"),
+            ReservationResult.failure("ORDER-2", "Insufficient inventory for product: PROD-001")));
+        when(failureHandler.handleFailure(eq(SagaStage.INVENTORY), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendInventoryReservedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumeOrderValidatedBatch(List.of(event(first), event(second)), ack);
+        
+        // Then
+        verify(inventoryService, never()).reserveInventory(any(Order.class));
+        verify(failureHandler).handleFailure(eq(SagaStage.INVENTORY),
+            argThat(event -> event.getOrderId().equals("ORDER-2")),
+            eq("Insufficient inventory for product: PROD-001"), eq(0));
+        verify(eventProducer).sendInventoryReservedEvents(argThat(events -> events.size() == 1
+            && events.get(0).getStatus() == OrderStatus.INVENTORY_RESERVED));
+        verify(ack).acknowledge();
+    }
+    
+    @Test
+    void testPaymentBatch_StartsEveryChargeAndRoutesDecline() {
+        // Given
+        Order first = createOrder("ORDER-1");
+        Order second = createOrder("ORDER-2");
+        CompletableFuture<Boolean> slow = new CompletableFuture<>();
+        when(paymentService.processPayment(first)).thenReturn(slow);
+        when(paymentService.processPayment(second))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Payment gateway declined the transaction")));
+        when(failureHandler.handleFailure(eq(SagaStage.PAYMENT), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendPaymentProcessedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        slow.complete(true);
+        
+        // When
+        consumer.consumeInventoryReservedBatch(List.of(event(first), event(second)), ack);
+        
+        // Then
+        verify(paymentService).processPayment(first);
+        verify(paymentService).processPayment(second);
+        verify(failureHandler).handleFailure(eq(SagaStage.PAYMENT),
+            argThat(event -> event.getOrderId().equals("ORDER-2")),
+            eq("Payment gateway declined the transaction"), eq(0));
+        verify(eventProducer).sendPaymentProcessedEvents(argThat(events -> events.size() == 1
+            && events.get(0).getOrderId().equals("ORDER-1")));
+        verify(ack).acknowledge();
+    }
+    
+    @Test
+    void testConfirmationBatch_RoutesEventWithoutOrder() {
+        // Given
+        Order first = createOrder("ORDER-1");
+        OrderEvent missing = new OrderEvent("ORDER-2", null, OrderStatus.PAYMENT_PROCESSED,
+            "Payment processed successfully", "PaymentProcessor");
+        when(orderService.confirmOrders(List.of(first))).thenReturn(List.of(first));
+        when(failureHandler.handleFailure(eq(SagaStage.CONFIRMATION), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendOrderConfirmedEvents(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumePaymentProcessedBatch(List.of(event(first), missing), ack);
+        
+        // Then
+        verify(orderCache).attachOrders(any());
+        verify(failureHandler).handleFailure(eq(SagaStage.CONFIRMATION), eq(missing),
+            eq("Order not found: ORDER-2"), eq(0));
+        verify(eventProducer).sendOrderConfirmedEvents(argThat(events -> events.size() == 1
+            && events.get(0).getStatus() == OrderStatus.CONFIRMED));
+        verify(pipelineMetrics).recordConfirmed(any());
+        verify(ack).acknowledge();
+    }
+    
+    private OrderEvent event(Order order) {
+        return new OrderEvent(order.getOrderId(), order, OrderStatus.PLACED, "Order placed", "OrderService");
+    }
+    
+    private Order createOrder(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("CUST-001");
+        order.setTotalAmount(20.0);
+        return order;
+    }
+}
@@ -0,0 +1,232 @@
+package com.ecommerce.orderpipeline.kafka.consumer;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventProducer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.service.CallbackExecutor;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.OrderCache;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventConsumerTest {
+    
+    @Mock
+    private OrderService orderService;
+    
+    @Mock
+    private InventoryService inventoryService;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @Mock
+    private OrderEventProducer eventProducer;
+    
+    @Mock
+    private OrderFailureHandler failureHandler;
+    
+    @Mock
+    private OrderCache orderCache;
+    
+    @Mock
+    private KeyOrderedDispatcher dispatcher;
+    
+    @Mock
+    private AckTracker ackTracker;
+    
+    @Mock
+    private CallbackExecutor callbackExecutor;
+    
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+    
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+    
+    @Mock
+    private MessageListenerContainer container;
+    
+    @Mock
+    private Acknowledgment ack;
+    
+    @InjectMocks
+    private OrderEventConsumer consumer;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(consumer, "executionThreads", new ExecutionThreads(false));
+        ReflectionTestUtils.setField(consumer, "sagaMode", "fused");
+        ReflectionTestUtils.setField(consumer, "auditEvents", true);
+        ReflectionTestUtils.setField(consumer, "fusedWorkers", 1);
+        ReflectionTestUtils.setField(consumer, "fusedMaxInFlight", 10);
+        consumer.init();
+        
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return null;
+        }).when(dispatcher).dispatch(any(), anyInt(), any(), any());
+        lenient().when(callbackExecutor.get()).thenReturn(Runnable::run);
+        when(ackTracker.track(any(), anyInt(), anyLong(), any(), any()))
+            .thenAnswer(invocation -> invocation.getArgument(3));
+        when(pipelineMetrics.timeCall(any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        consumer.shutdown();
+    }
+    
+    @Test
+    void testFusedMode_RunsWholeSagaOnOrderPlaced() {
+        // Given
+        Order order = createOrder();
+        when(orderService.validateOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        when(inventoryService.reserveInventory(order)).thenReturn(true);
+        when(paymentService.processPayment(order)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        stubAuditEvents();
+        when(eventProducer.sendPaymentProcessedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendOrderConfirmedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 0L, ack);
+        
+        // Then
+        verify(ack, timeout(1000)).acknowledge();
+        verify(eventProducer).sendOrderConfirmedEvent(argThat(event -> event.getStatus() == OrderStatus.CONFIRMED));
+        verify(eventProducer).sendOrderValidatedEvent(any());
+        verify(eventProducer).sendInventoryReservedEvent(any());
+        verify(eventProducer).sendPaymentProcessedEvent(any());
+        verifyNoInteractions(failureHandler);
+    }
+    
+    @Test
+    void testFusedMode_PaymentFailureGoesToPaymentRetryTier() {
+        // Given
+        Order order = createOrder();
+        when(orderService.validateOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        when(inventoryService.reserveInventory(order)).thenReturn(true);
+        when(paymentService.processPayment(order))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Payment gateway declined the transaction")));
+        stubAuditEvents();
+        when(failureHandler.handleFailure(eq(SagaStage.PAYMENT), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 0L, ack);
+        
+        // Then
+        verify(ack, timeout(1000)).acknowledge();
+        verify(failureHandler).handleFailure(eq(SagaStage.PAYMENT),
+            argThat(event -> event.getStatus() == OrderStatus.INVENTORY_RESERVED),
+            eq("Payment gateway declined the transaction"), eq(0));
+        verify(orderService, never()).confirmOrder(any());
+        verify(eventProducer, never()).sendOrderConfirmedEvent(any());
+    }
+    
+    @Test
+    void testFusedMode_SaturatedGatewayRedeliversInsteadOfFailing() {
+        // Given
+        Order order = createOrder();
+        when(orderService.validateOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        when(inventoryService.reserveInventory(order)).thenReturn(true);
+        when(paymentService.processPayment(order))
+            .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("200 gateway calls still in flight")));
+        stubAuditEvents();
+        
+        // When
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 0L, ack);
+        
+        // Then
+        verify(ack, timeout(1000)).nack(0);
+        verify(ack, never()).acknowledge();
+        verifyNoInteractions(failureHandler);
+    }
+    
+    @Test
+    void testFusedMode_NacksRecordWhoseFailureCannotBePublished() {
+        // Given
+        Order order = createOrder();
+        when(orderService.validateOrder(order))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Database unavailable")));
+        when(failureHandler.handleFailure(eq(SagaStage.VALIDATION), any(), any(), eq(0)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Producer backpressure")));
+        
+        // When
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 0L, ack);
+        
+        // Then
+        verify(ack, timeout(1000)).nack(0);
+        verify(ack, never()).acknowledge();
+    }
+    
+    @Test
+    void testFusedMode_PausesAtInFlightLimitAndResumesAtHalf() {
+        // Given
+        ReflectionTestUtils.setField(consumer, "fusedMaxInFlight", 2);
+        Order order = createOrder();
+        CompletableFuture<Boolean> charge = new CompletableFuture<>();
+        when(orderService.validateOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        when(inventoryService.reserveInventory(order)).thenReturn(true);
+        when(paymentService.processPayment(order)).thenReturn(charge);
+        when(orderService.confirmOrder(order)).thenReturn(CompletableFuture.completedFuture(order));
+        stubAuditEvents();
+        when(eventProducer.sendPaymentProcessedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendOrderConfirmedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(registry.getListenerContainer("validation-stage")).thenReturn(container);
+        
+        // When
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 0L, ack);
+        verify(container, never()).pause();
+        consumer.consumeOrderPlaced(placedEvent(order), "orders.placed", 0, 1L, ack);
+        
+        // Then: the consumer thread returned at once and the container was paused instead
+        verify(container).pause();
+        charge.complete(true);
+        verify(ack, timeout(1000).times(2)).acknowledge();
+        verify(container, timeout(1000)).resume();
+    }
+    
+    private void stubAuditEvents() {
+        when(eventProducer.sendOrderValidatedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventProducer.sendInventoryReservedEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+    
+    private OrderEvent placedEvent(Order order) {
+        return new OrderEvent(order.getOrderId(), order, OrderStatus.PLACED, "Order placed", "OrderService");
+    }
+    
+    private Order createOrder() {
+        Order order = new Order();
+        order.setOrderId("ORDER-1");
+        order.setCustomerId("CUST-001");
+        order.setTotalAmount(20.0);
+        return order;
+    }
+}
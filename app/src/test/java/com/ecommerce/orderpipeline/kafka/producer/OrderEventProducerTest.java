@@ -0,0 +1,108 @@
+package com.ecommerce.orderpipeline.kafka.producer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventProducerTest {
+    
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    
+    @InjectMocks
+    private OrderEventProducer eventProducer;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(eventProducer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(eventProducer, "maxInFlight", 2);
+        eventProducer.init();
+    }
+    
+    @Test
+    void testSendAll_CompletesWhenEverySendIsAcknowledged() {
+        // Given
+        SettableListenableFuture<SendResult<String, Object>> first = new SettableListenableFuture<>();
+        SettableListenableFuture<SendResult<String, Object>> second = new SettableListenableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(first, second);
+        
+        // When
+        CompletableFuture<Void> sent = eventProducer.sendAll("orders.validated",
+            List.of(createEvent("ORDER-1"), createEvent("ORDER-2")));
+        first.set(null);
+        
+        // Then
+        assertFalse(sent.isDone());
+        second.set(null);
+        assertDoesNotThrow(() -> sent.join());
+        assertEquals(2, meterRegistry.get("order.producer.send.latency").tag("topic", "orders.validated").timer().count());
+    }
+    
+    @Test
+    void testSendAll_FailsIfAnySendFails() {
+        // Given
+        SettableListenableFuture<SendResult<String, Object>> first = new SettableListenableFuture<>();
+        SettableListenableFuture<SendResult<String, Object>> second = new SettableListenableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(first, second);
+        
+        // When
+        CompletableFuture<Void> sent = eventProducer.sendAll("orders.validated",
+            List.of(createEvent("ORDER-1"), createEvent("ORDER-2")));
+        first.set(null);
+        second.setException(new RuntimeException("Broker unavailable"));
+        
+        // Then
+        CompletionException error = assertThrows(CompletionException.class, sent::join);
+        assertEquals("Broker unavailable", error.getCause().getMessage());
+        assertEquals(1.0, meterRegistry.get("order.producer.send.errors").tag("topic", "orders.validated").counter().count());
+    }
+    
+    @Test
+    void testSend_FailsFastWhenInFlightLimitReached() {
+        // Given
+        SettableListenableFuture<SendResult<String, Object>> pending = new SettableListenableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+        eventProducer.send("orders.validated", createEvent("ORDER-1"));
+        eventProducer.send("orders.validated", createEvent("ORDER-2"));
+        
+        // When
+        CompletableFuture<Void> rejected = eventProducer.send("orders.validated", createEvent("ORDER-3"));
+        
+        // Then
+        assertTrue(rejected.isCompletedExceptionally());
+        assertThrows(CompletionException.class, rejected::join);
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        
+        // Acknowledgements free the permits again
+        pending.set(null);
+        eventProducer.send("orders.validated", createEvent("ORDER-4"));
+        verify(kafkaTemplate, times(3)).send(anyString(), anyString(), any());
+    }
+    
+    private OrderEvent createEvent(String orderId) {
+        return new OrderEvent(orderId, null, OrderStatus.VALIDATED, "Order validation successful", "OrderValidator");
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.orderpipeline.kafka.producer;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventDeserializer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.repository.OutboxRepository;
+import com.ecommerce.orderpipeline.service.OrderService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "app.outbox.relay-interval-ms=50"
+})
+@EmbeddedKafka(partitions = 1, topics = "orders.placed")
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OutboxRepository outboxRepository;
+    
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    
+    @Test
+    void testPlaceOrder_EventRelayedFromOutbox() throws Exception {
+        // Given
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafka);
+        Consumer<String, OrderEvent> consumer = new DefaultKafkaConsumerFactory<>(
+            props, new StringDeserializer(), new OrderEventDeserializer()).createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "orders.placed");
+        
+        // When
+        Order order = orderService.placeOrder(createValidOrder());
+        
+        // Then
+        ConsumerRecord<String, OrderEvent> record = KafkaTestUtils.getSingleRecord(consumer, "orders.placed", 10000);
+        assertEquals(order.getOrderId(), record.key());
+        assertEquals(OrderStatus.PLACED, record.value().getStatus());
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, outboxRepository.count());
+        consumer.close();
+    }
+    
+    private Order createValidOrder() {
+        Order order = new Order();
+        order.setOrderId("ORDER-" + UUID.randomUUID());
+        order.setCustomerId("CUST-001");
+        order.setTotalAmount(99.99);
+        order.setItems(List.of(new OrderItem("prod-1", "Headphones", 1, 99.99)));
+        return order;
+    }
+}
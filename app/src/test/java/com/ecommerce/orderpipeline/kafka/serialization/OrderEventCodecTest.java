@@ -0,0 +1,212 @@
+package com.ecommerce.orderpipeline.kafka.serialization;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventCodecTest {
+    
+    private final OrderEventSerializer serializer = new OrderEventSerializer();
+    private final OrderEventDeserializer deserializer = new OrderEventDeserializer();
+    
+    @Test
+    void testBinaryRoundTrip() {
+        // Given
+        OrderEvent event = createEvent();
+        
+        // When
+        byte[] data = serializer.serialize("orders.placed", event);
+        OrderEvent decoded = deserializer.deserialize("orders.placed", data);
+        
+        // Then
+        assertTrue(OrderEventCodec.isBinary(data));
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void testBinaryRoundTrip_NullFields() {
+        // Given
+        OrderEvent event = new OrderEvent();
+        event.setOrderId("ORDER-1");
+        
+        // When
+        OrderEvent decoded = deserializer.deserialize("orders.placed", serializer.serialize("orders.placed", event));
+        
+        // Then
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void testBinaryRoundTrip_SlimEvent() {
+        // Given
+        OrderEvent event = createEvent();
+        event.getOrder().setVersion(3L);
+        OrderEvent slim = new OrderEvent(event.getOrderId(), event.getOrder(), OrderStatus.INVENTORY_RESERVED,
+            "Inventory reserved successfully", "InventoryManager").withoutOrder();
+        
+        // When
+        byte[] data = serializer.serialize("inventory.reserved", slim);
+        OrderEvent decoded = deserializer.deserialize("inventory.reserved", data);
+        
+        // Then
+        assertNull(decoded.getOrder());
+        assertEquals(3L, decoded.getOrderVersion());
+        assertEquals(219.97, decoded.getTotalAmount());
+        assertEquals(slim, decoded);
+        assertTrue(data.length * 4 < serializer.serialize("orders.placed", event).length * 3);
+    }
+    
+    @Test
+    void testDeserializer_ReadsJsonDuringRollout() {
+        // Given
+        OrderEvent event = createEvent();
+        byte[] json;
+        try (JsonSerializer<OrderEvent> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("orders.placed", event);
+        }
+        
+        // When
+        OrderEvent decoded = deserializer.deserialize("orders.placed", json);
+        
+        // Then
+        assertFalse(OrderEventCodec.isBinary(json));
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void testDeserializer_ReadsLegacyJsonTimestamp() {
+        // Given
+        byte[] json = ("{\"orderId\":\"ORDER-1\",\"status\":\"PLACED\","
+            + "\"timestamp\":\"2023-10-26T10:30:02.5\"}").getBytes(StandardCharsets.UTF_8);
+        
+        // When
+        OrderEvent decoded = deserializer.deserialize("orders.placed", json);
+        
+        // Then
+        assertEquals(LocalDateTime.of(2023, 10, 26, 10, 30, 2, 500000000)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), decoded.getTimestamp());
+        assertNull(decoded.getPlacedAt());
+    }
+    
+    @Test
+    void testDecode_ReadsVersion2Timestamps() {
+        // Given
+        LocalDateTime sentAt = LocalDateTime.of(2023, 10, 26, 10, 30, 2, 500000000);
+        BinaryWriter writer = new BinaryWriter(64);
+        writer.writeByte(OrderEventCodec.MAGIC);
+        writer.writeByte(2);
+        writer.writeNullableString("event-1");
+        writer.writeNullableString("ORDER-1");
+        writer.writeByte(0);
+        writer.writeNullableLong(3L);
+        writer.writeNullableString("cust-123");
+        writer.writeNullableDouble(219.97);
+        writer.writeNullableEnum(OrderStatus.VALIDATED, OrderStatus::getCode);
+        writer.writeNullableString("Order validation successful");
+        writer.writeNullableDateTime(sentAt);
+        writer.writeNullableString("OrderValidator");
+        
+        // When
+        OrderEvent decoded = OrderEventCodec.decode(writer.toByteArray());
+        
+        // Then
+        assertEquals(sentAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), decoded.getTimestamp());
+        assertNull(decoded.getPlacedAt());
+        assertEquals("OrderValidator", decoded.getSourceService());
+    }
+    
+    @Test
+    void testBinaryIsSmallerThanJson() {
+        // Given
+        OrderEvent event = createEvent();
+        byte[] json;
+        try (JsonSerializer<OrderEvent> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("orders.placed", event);
+        }
+        
+        // When
+        byte[] binary = serializer.serialize("orders.placed", event);
+        
+        // Then
+        // Changes here mean the layout changed, which needs a new schema version
+        assertEquals(277, binary.length);
+        assertTrue(binary.length * 100 < json.length * 40,
+            "binary " + binary.length + " bytes vs JSON " + json.length + " bytes");
+    }
+    
+    @Test
+    void testStatusCodes_AreStable() {
+        // Given
+        OrderStatus[] written = {
+            OrderStatus.PLACED, OrderStatus.VALIDATED, OrderStatus.VALIDATION_FAILED,
+            OrderStatus.INVENTORY_RESERVED, OrderStatus.INVENTORY_RESERVATION_FAILED,
+            OrderStatus.PAYMENT_PROCESSED, OrderStatus.PAYMENT_FAILED, OrderStatus.CONFIRMED,
+            OrderStatus.CANCELLED};
+        
+        // When & Then
+        for (int i = 0; i < written.length; i++) {
+            assertEquals(i + 1, written[i].getCode());
+            assertSame(written[i], OrderStatus.fromCode(i + 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.fromCode(written.length + 1));
+    }
+    
+    @Test
+    void testEncode_DropsOversizedWriter() {
+        // Given
+        OrderEvent event = createEvent();
+        event.setMessage("x".repeat(OrderEventCodec.MAX_RETAINED_BYTES));
+        ThreadLocal<?> writers = (ThreadLocal<?>) ReflectionTestUtils.getField(OrderEventCodec.class, "WRITERS");
+        
+        // When
+        byte[] large = OrderEventCodec.encode(event);
+        byte[] small = OrderEventCodec.encode(createEvent());
+        
+        // Then
+        assertEquals(event.getMessage(), OrderEventCodec.decode(large).getMessage());
+        assertEquals(277, small.length);
+        assertTrue(((BinaryWriter) writers.get()).capacity() <= OrderEventCodec.MAX_RETAINED_BYTES);
+    }
+    
+    @Test
+    void testDecode_RejectsUnknownVersion() {
+        // Given
+        byte[] data = serializer.serialize("orders.placed", createEvent());
+        data[1] = (byte) (OrderEventCodec.VERSION + 1);
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> OrderEventCodec.decode(data));
+    }
+    
+    private OrderEvent createEvent() {
+        Order order = new Order();
+        order.setOrderId("ORDER-12345");
+        order.setCustomerId("cust-123");
+        order.setCustomerEmail("john@example.com");
+        order.setStatus(OrderStatus.VALIDATED);
+        order.setTotalAmount(219.97);
+        order.setShippingAddress("123 Main St, Zürich, Switzerland");
+        order.setItems(List.of(
+            new OrderItem("prod-456", "Wireless Headphones", 1, 199.99),
+            new OrderItem("prod-789", "USB-C Cable", 2, 9.99)));
+        order.setCreatedAt(LocalDateTime.of(2023, 10, 26, 10, 30, 0, 123456789));
+        order.setUpdatedAt(LocalDateTime.of(2023, 10, 26, 10, 30, 2));
+        order.setRetryCount(0);
+        
+        OrderEvent event = new OrderEvent("ORDER-12345", order, OrderStatus.VALIDATED,
+            "Order validation successful", "OrderValidator");
+        event.setTimestamp(1698316202500L);
+        return event;
+    }
+}
@@ -0,0 +1,450 @@
+package com.ecommerce.orderpipeline.loadtest;
+
+import com.ecommerce.orderpipeline.OrderProcessingApplication;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventDeserializer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline end-to-end load test. Boots one or more application instances against an embedded
+ * Kafka broker and a shared in-memory H2 database, drives {@code POST /api/orders} at a fixed
+ * open-loop rate, and follows {@code orders.confirmed}, {@code orders.failed} and
+ * {@code dlq.orders} to time every order from its scheduled send to its final event.
+ *
+ * <p>Latencies are measured from when a request was <em>due</em>, not when it was sent, so a
+ * stalled pipeline shows up in the percentiles instead of silently lowering the offered rate.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ecommerce.orderpipeline.loadtest.LoadGenerator \
+ *     -Dexec.args="--rate=300 --duration=60 --partitions=6 --concurrency=6"
+ * </pre>
+ */
+public class LoadGenerator {
+    
+    private static final String CONFIRMED_TOPIC = "orders.confirmed";
+    private static final String FAILED_TOPIC = "orders.failed";
+    private static final String DLQ_TOPIC = "dlq.orders";
+    
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    
+    // orderId -> nanoTime the request was due, for orders still in flight
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Set<String> measured = ConcurrentHashMap.newKeySet();
+    private final Histogram endToEnd = new ConcurrentHistogram(3);
+    private final Histogram placement = new ConcurrentHistogram(3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    
+    private List<String> baseUrls;
+    private SkuSampler skus;
+    
+    LoadGenerator(Options options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        System.out.println("Load test: " + options);
+        new LoadGenerator(options).run();
+        System.exit(0);
+    }
+    
+    void run() throws Exception {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaBroker(1, false, options.partitions,
+            CONFIRMED_TOPIC, FAILED_TOPIC, DLQ_TOPIC);
+        broker.afterPropertiesSet();
+        
+        List<ConfigurableApplicationContext> instances = new ArrayList<>();
+        try {
+            baseUrls = new ArrayList<>();
+            for (int i = 0; i < options.instances; i++) {
+                ConfigurableApplicationContext context = startInstance(broker, i);
+                instances.add(context);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                baseUrls.add("http://localhost:" + port + "/api/orders");
+            }
+            seedInventory(instances.get(0).getBean(InventoryRepository.class));
+            skus = new SkuSampler(options.skus, options.hotSkus, options.hotShare, options.zipfExponent);
+            
+            Thread follower = new Thread(() -> follow(broker), "load-follower");
+            follower.setDaemon(true);
+            follower.start();
+            
+            drive(options.warmupSeconds, false);
+            drive(options.durationSeconds, true);
+            drain();
+            report();
+        } finally {
+            for (ConfigurableApplicationContext context : instances) {
+                context.close();
+            }
+            broker.destroy();
+        }
+    }
+    
+    private ConfigurableApplicationContext startInstance(EmbeddedKafkaBroker broker, int index) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+        properties.put("spring.kafka.listener.concurrency", options.concurrency);
+        properties.put("app.kafka.topics.partitions", options.partitions);
+        properties.put("app.payment.stub.latency-median-ms", options.paymentMedianMs);
+        properties.put("app.payment.stub.latency-p99-ms", options.paymentP99Ms);
+        properties.put("app.payment.stub.decline-rate", options.declineRate);
+        properties.put("logging.level.com.ecommerce.orderpipeline", "WARN");
+        properties.put("logging.level.org.apache.kafka", "WARN");
+        // Instances share one in-memory database; only the first one creates the schema
+        properties.put("spring.jpa.hibernate.ddl-auto", index == 0 ? "create-drop" : "none");
+        
+        if (options.dbPool > 0) {
+            properties.put("spring.datasource.hikari.maximum-pool-size", options.dbPool);
+            properties.put("spring.datasource.hikari.minimum-idle", options.dbPool);
+        }
+        
+        return new SpringApplicationBuilder(OrderProcessingApplication.class)
+            .profiles(options.virtualThreads ? new String[] {"test", "virtual-threads"} : new String[] {"test"})
+            .properties(properties)
+            .run();
+    }
+    
+    private void seedInventory(InventoryRepository inventoryRepository) {
+        List<ProductInventory> rows = new ArrayList<>(options.skus);
+        for (int i = 0; i < options.skus; i++) {
+            int stock = i < options.hotSkus ? options.hotStock : options.stock;
+            rows.add(new ProductInventory(sku(i), "Product " + i, stock, 0, 0, LocalDateTime.now()));
+        }
+        inventoryRepository.saveAll(rows);
+    }
+    
+    /**
+     * Sends at a fixed rate for {@code seconds}. Requests are fired asynchronously on their
+     * schedule, however long earlier ones take.
+     */
+    private void drive(int seconds, boolean measured) {
+        if (seconds <= 0) {
+            return;
+        }
+        System.out.printf("%s for %ds at %d orders/s%n", measured ? "Measuring" : "Warming up", seconds, options.rate);
+        
+        Random random = new Random(measured ? 7 : 3);
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (long i = 0; ; i++) {
+            long due = start + i * interval;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            place(newOrder(random), due, measured, (int) (i % baseUrls.size()));
+        }
+    }
+    
+    private void place(Order order, long due, boolean measured, int instance) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(order);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        if (measured) {
+            pending.put(order.getOrderId(), due);
+            this.measured.add(order.getOrderId());
+            sent.incrementAndGet();
+        }
+        
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrls.get(instance)))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                if (!measured) {
+                    return;
+                }
+                placement.recordValue(micros(System.nanoTime() - due));
+                if (error != null || response.statusCode() != 200) {
+                    pending.remove(order.getOrderId());
+                    rejected.incrementAndGet();
+                }
+            });
+    }
+    
+    private void follow(EmbeddedKafkaBroker broker) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "load-generator");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (KafkaConsumer<String, OrderEvent> consumer =
+                 new KafkaConsumer<>(props, new StringDeserializer(), new OrderEventDeserializer())) {
+            consumer.subscribe(Arrays.asList(CONFIRMED_TOPIC, FAILED_TOPIC, DLQ_TOPIC));
+            while (!Thread.currentThread().isInterrupted()) {
+                for (ConsumerRecord<String, OrderEvent> record : consumer.poll(Duration.ofMillis(100))) {
+                    if (!measured.contains(record.key())) {
+                        continue;
+                    }
+                    // A cancelled order lands on both orders.failed and the DLQ, in either order
+                    Long due = pending.remove(record.key());
+                    switch (record.topic()) {
+                        case CONFIRMED_TOPIC:
+                            confirmed.incrementAndGet();
+                            if (due != null) {
+                                endToEnd.recordValue(micros(System.nanoTime() - due));
+                            }
+                            break;
+                        case FAILED_TOPIC:
+                            failed.incrementAndGet();
+                            break;
+                        default:
+                            deadLettered.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+    
+    private void drain() {
+        System.out.printf("Waiting up to %ds for %d orders still in flight%n", options.drainSeconds, pending.size());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds);
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+    
+    private void report() throws Exception {
+        long total = sent.get();
+        System.out.println();
+        System.out.println("=== Load test report ===");
+        System.out.printf("Offered rate:       %d orders/s for %ds on %d instance(s)%n",
+            options.rate, options.durationSeconds, options.instances);
+        System.out.printf("Threads:            %s%n", options.virtualThreads ? "virtual" : "platform");
+        System.out.printf("Orders sent:        %d%n", total);
+        System.out.printf("Confirmed:          %d (%.2f%%)%n", confirmed.get(), percent(confirmed.get(), total));
+        System.out.printf("Failed:             %d (%.2f%%)%n", failed.get(), percent(failed.get(), total));
+        System.out.printf("Dead-lettered:      %d (%.2f%%)%n", deadLettered.get(), percent(deadLettered.get(), total));
+        System.out.printf("Rejected by API:    %d (%.2f%%)%n", rejected.get(), percent(rejected.get(), total));
+        System.out.printf("Unfinished:         %d (%.2f%%)%n", pending.size(), percent(pending.size(), total));
+        System.out.printf("Confirmed rate:     %.1f orders/s%n", (double) confirmed.get() / options.durationSeconds);
+        printSummary("POST /api/orders", placement);
+        printSummary("Placed -> confirmed", endToEnd);
+        
+        System.out.println();
+        System.out.println("Placed -> confirmed percentile distribution (ms):");
+        endToEnd.outputPercentileDistribution(System.out, 1000.0);
+        
+        File dir = new File(options.outputDir);
+        dir.mkdirs();
+        try (PrintStream out = new PrintStream(new FileOutputStream(new File(dir, "placed-to-confirmed.hgrm")))) {
+            endToEnd.outputPercentileDistribution(out, 1000.0);
+        }
+        try (PrintStream out = new PrintStream(new FileOutputStream(new File(dir, "placement.hgrm")))) {
+            placement.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.println("Histograms written to " + dir.getAbsolutePath());
+    }
+    
+    private static void printSummary(String name, Histogram histogram) {
+        System.out.printf("%-20s p50 %8.1f ms  p90 %8.1f ms  p99 %8.1f ms  p99.9 %8.1f ms  max %8.1f ms%n",
+            name + ":",
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(90) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+    
+    private Order newOrder(Random random) {
+        // Most baskets hold one or two lines, a few hold many
+        int lines = 1;
+        while (lines < options.maxItems && random.nextDouble() < 0.4) {
+            lines++;
+        }
+        List<OrderItem> items = new ArrayList<>(lines);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            int product = skus.next(random);
+            int quantity = random.nextDouble() < 0.8 ? 1 : 2 + random.nextInt(3);
+            double price = 5 + (product % 200);
+            items.add(new OrderItem(sku(product), "Product " + product, quantity, price));
+            total += quantity * price;
+        }
+        
+        Order order = new Order();
+        order.setOrderId("LOAD-" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+        order.setCustomerId("cust-" + random.nextInt(100_000));
+        order.setCustomerEmail("load@example.com");
+        order.setShippingAddress("1 Load Test Way");
+        order.setTotalAmount(total);
+        order.setItems(items);
+        return order;
+    }
+    
+    private static String sku(int index) {
+        return "sku-" + index;
+    }
+    
+    private static long micros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+    
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+    
+    /**
+     * Picks SKUs: {@code hotShare} of picks go uniformly to the first {@code hotSkus} products,
+     * the rest follow a Zipf distribution over the remaining catalogue.
+     */
+    static class SkuSampler {
+        
+        private final int hotSkus;
+        private final double hotShare;
+        private final double[] cumulative;
+        
+        SkuSampler(int skus, int hotSkus, double hotShare, double exponent) {
+            this.hotSkus = hotSkus;
+            this.hotShare = hotSkus > 0 ? hotShare : 0;
+            cumulative = new double[skus - hotSkus];
+            double sum = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+        
+        int next(Random random) {
+            if (random.nextDouble() < hotShare) {
+                return random.nextInt(hotSkus);
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return hotSkus + (index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1));
+        }
+    }
+    
+    static class Options {
+        int rate = 200;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        int drainSeconds = 60;
+        int instances = 1;
+        int partitions = 3;
+        int concurrency = 3;
+        int paymentMedianMs = 80;
+        int paymentP99Ms = 400;
+        double declineRate = 0.05;
+        int skus = 1000;
+        int hotSkus = 10;
+        double hotShare = 0.2;
+        double zipfExponent = 1.0;
+        int maxItems = 5;
+        int stock = 1_000_000;
+        int hotStock = 1_000_000;
+        boolean virtualThreads;
+        int dbPool;
+        String outputDir = "target/loadtest";
+        
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "rate": options.rate = Integer.parseInt(value); break;
+                    case "duration": options.durationSeconds = Integer.parseInt(value); break;
+                    case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "drain": options.drainSeconds = Integer.parseInt(value); break;
+                    case "instances": options.instances = Integer.parseInt(value); break;
+                    case "partitions": options.partitions = Integer.parseInt(value); break;
+                    case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                    case "payment-median-ms": options.paymentMedianMs = Integer.parseInt(value); break;
+                    case "payment-p99-ms": options.paymentP99Ms = Integer.parseInt(value); break;
+                    case "decline-rate": options.declineRate = Double.parseDouble(value); break;
+                    case "skus": options.skus = Integer.parseInt(value); break;
+                    case "hot-skus": options.hotSkus = Integer.parseInt(value); break;
+                    case "hot-share": options.hotShare = Double.parseDouble(value); break;
+                    case "zipf": options.zipfExponent = Double.parseDouble(value); break;
+                    case "max-items": options.maxItems = Integer.parseInt(value); break;
+                    case "stock": options.stock = Integer.parseInt(value); break;
+                    case "hot-stock": options.hotStock = Integer.parseInt(value); break;
+                    case "threads": options.virtualThreads = parseThreads(value); break;
+                    case "db-pool": options.dbPool = Integer.parseInt(value); break;
+                    case "out": options.outputDir = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            if (options.hotSkus >= options.skus) {
+                throw new IllegalArgumentException("--hot-skus must be smaller than --skus");
+            }
+            return options;
+        }
+        
+        private static boolean parseThreads(String value) {
+            switch (value) {
+                case "platform": return false;
+                case "virtual": return true;
+                default: throw new IllegalArgumentException("--threads must be platform or virtual");
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("rate=%d/s duration=%ds warmup=%ds instances=%d partitions=%d concurrency=%d "
+                    + "payment=%d/%dms decline=%.2f skus=%d hot=%d@%.0f%% zipf=%.1f threads=%s db-pool=%s",
+                rate, durationSeconds, warmupSeconds, instances, partitions, concurrency,
+                paymentMedianMs, paymentP99Ms, declineRate, skus, hotSkus, hotShare * 100, zipfExponent,
+                virtualThreads ? "virtual" : "platform", dbPool > 0 ? String.valueOf(dbPool) : "default");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.orderpipeline.repository;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class OrderRepositoryTest {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Test
+    void testFindWithItems_KeepsLineOrder() {
+        // Given
+        orderRepository.save(createOrder("ORDER-1", "PROD-C", "PROD-A", "PROD-B"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Order loaded = orderRepository.findWithItemsByOrderId("ORDER-1").get();
+        
+        // Then
+        assertEquals(List.of("PROD-C", "PROD-A", "PROD-B"), productIds(loaded));
+        assertEquals(2, loaded.getItems().get(0).getQuantity());
+        assertEquals(List.of("PROD-C", "PROD-A", "PROD-B"), entityManager.getEntityManager()
+            .createNativeQuery("SELECT product_id FROM order_items WHERE order_order_id = 'ORDER-1' ORDER BY line_number")
+            .getResultList());
+    }
+    
+    @Test
+    void testFindWithItemsIn_KeepsLineOrderPerOrder() {
+        // Given
+        orderRepository.save(createOrder("ORDER-1", "PROD-B", "PROD-A"));
+        orderRepository.save(createOrder("ORDER-2", "PROD-Z", "PROD-X", "PROD-Y"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        List<Order> loaded = orderRepository.findWithItemsByOrderIdIn(List.of("ORDER-1", "ORDER-2"));
+        
+        // Then
+        assertEquals(2, loaded.size());
+        for (Order order : loaded) {
+            List<String> expected = order.getOrderId().equals("ORDER-1")
+                ? List.of("PROD-B", "PROD-A")
+                : List.of("PROD-Z", "PROD-X", "PROD-Y");
+            assertEquals(expected, productIds(order));
+        }
+    }
+    
+    private List<String> productIds(Order order) {
+        return order.getItems().stream().map(OrderItem::getProductId).collect(Collectors.toList());
+    }
+    
+    private Order createOrder(String orderId, String... productIds) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("CUST-001");
+        order.setStatus(OrderStatus.PLACED);
+        order.setTotalAmount(59.97);
+        List<OrderItem> items = new ArrayList<>();
+        for (String productId : productIds) {
+            items.add(new OrderItem(productId, "Product " + productId, 2, 19.99));
+        }
+        order.setItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.orderpipeline.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkipLockedDialectTest {
+    
+    @Test
+    void testConfiguredDialect_RendersSkipLocked() throws Exception {
+        // Given
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties properties = yaml.getObject();
+        String dialectClass = properties.getProperty("spring.jpa.properties.hibernate.dialect");
+        
+        // When
+        Dialect dialect = (Dialect) Class.forName(dialectClass).getDeclaredConstructor().newInstance();
+        
+        // Then: the outbox claim and stock bucket picks rely on lock timeout -2 becoming SKIP LOCKED
+        assertTrue(dialect.supportsSkipLocked(), dialectClass + " has no SKIP LOCKED");
+        assertTrue(dialect.getForUpdateSkipLockedString().toLowerCase().contains("skip locked"));
+    }
+}
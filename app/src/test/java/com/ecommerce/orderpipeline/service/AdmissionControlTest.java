@@ -0,0 +1,133 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.kafka.consumer.PipelineMetrics;
+import com.ecommerce.orderpipeline.kafka.consumer.SagaStage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlTest {
+    
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+    
+    @InjectMocks
+    private AdmissionControl admissionControl;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(admissionControl, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(admissionControl, "enabled", true);
+        ReflectionTestUtils.setField(admissionControl, "pressureEnabled", false);
+        ReflectionTestUtils.setField(admissionControl, "globalRate", 1000.0);
+        ReflectionTestUtils.setField(admissionControl, "globalBurst", 1000);
+        ReflectionTestUtils.setField(admissionControl, "customerRate", 1.0);
+        ReflectionTestUtils.setField(admissionControl, "customerBurst", 2);
+        ReflectionTestUtils.setField(admissionControl, "maxTrackedCustomers", 100L);
+        ReflectionTestUtils.setField(admissionControl, "pressureIntervalMs", 5000L);
+        ReflectionTestUtils.setField(admissionControl, "throttleLag", 10_000L);
+        ReflectionTestUtils.setField(admissionControl, "shedLag", 100_000L);
+        ReflectionTestUtils.setField(admissionControl, "throttleLatencyMs", 2000.0);
+        ReflectionTestUtils.setField(admissionControl, "shedLatencyMs", 10_000.0);
+        ReflectionTestUtils.setField(admissionControl, "throttleFactor", 0.5);
+        ReflectionTestUtils.setField(admissionControl, "shedFactor", 0.0);
+        ReflectionTestUtils.setField(admissionControl, "recoverIntervals", 2);
+        admissionControl.init();
+    }
+    
+    @Test
+    void testAdmit_CustomerPastBurstIsLimited() {
+        // Given
+        admissionControl.admit("CUST-001");
+        admissionControl.admit("CUST-001");
+        
+        // When
+        AdmissionControl.Decision decision = admissionControl.admit("CUST-001");
+        
+        // Then
+        assertEquals(AdmissionControl.Result.CUSTOMER_LIMITED, decision.getResult());
+        assertTrue(decision.getRetryAfterSeconds() >= 1);
+        assertTrue(admissionControl.admit("CUST-002").isAdmitted());
+        assertTrue(admissionControl.admit(null).isAdmitted());
+    }
+    
+    @Test
+    void testAdmit_GlobalLimitOverloads() {
+        // Given
+        ReflectionTestUtils.setField(admissionControl, "globalRate", 1.0);
+        ReflectionTestUtils.setField(admissionControl, "globalBurst", 3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admissionControl.admit(null).isAdmitted());
+        }
+        
+        // When
+        AdmissionControl.Decision decision = admissionControl.admit(null);
+        
+        // Then
+        assertEquals(AdmissionControl.Result.OVERLOADED, decision.getResult());
+    }
+    
+    @Test
+    void testAdmitOrder_ChargesGlobalBucketOnly() {
+        // Given
+        ReflectionTestUtils.setField(admissionControl, "globalRate", 1.0);
+        ReflectionTestUtils.setField(admissionControl, "globalBurst", 3);
+        admissionControl.admit("CUST-001");
+        admissionControl.admit("CUST-001");
+        
+        // When
+        AdmissionControl.Decision bulkOrder = admissionControl.admitOrder();
+        AdmissionControl.Decision nextOrder = admissionControl.admitOrder();
+        
+        // Then
+        assertTrue(bulkOrder.isAdmitted());
+        assertEquals(AdmissionControl.Result.OVERLOADED, nextOrder.getResult());
+    }
+    
+    @Test
+    void testEvaluatePressure_SlowStageThrottlesThenRecovers() {
+        // Given
+        when(pipelineMetrics.stageCount(any())).thenReturn(0L);
+        when(pipelineMetrics.stageTotalTime(any(), eq(TimeUnit.MILLISECONDS))).thenReturn(0.0);
+        admissionControl.evaluatePressure();
+        when(pipelineMetrics.stageCount(SagaStage.PAYMENT)).thenReturn(10L);
+        when(pipelineMetrics.stageTotalTime(SagaStage.PAYMENT, TimeUnit.MILLISECONDS)).thenReturn(30_000.0);
+        
+        // When
+        admissionControl.evaluatePressure();
+        
+        // Then
+        assertEquals(AdmissionControl.Pressure.THROTTLED, admissionControl.getPressure());
+        
+        // Nothing new processed: back to normal only after two calm reads
+        admissionControl.evaluatePressure();
+        assertEquals(AdmissionControl.Pressure.THROTTLED, admissionControl.getPressure());
+        admissionControl.evaluatePressure();
+        assertEquals(AdmissionControl.Pressure.NORMAL, admissionControl.getPressure());
+    }
+    
+    @Test
+    void testAdmit_SheddingWithZeroFactorRejectsEverything() {
+        // Given
+        ReflectionTestUtils.setField(admissionControl, "pressure", AdmissionControl.Pressure.SHEDDING);
+        
+        // When
+        AdmissionControl.Decision decision = admissionControl.admit(null);
+        
+        // Then
+        assertEquals(AdmissionControl.Result.OVERLOADED, decision.getResult());
+        assertEquals(5, decision.getRetryAfterSeconds());
+    }
+}
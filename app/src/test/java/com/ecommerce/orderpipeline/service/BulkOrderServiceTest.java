@@ -0,0 +1,91 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.id.IdGenerator;
+import com.ecommerce.orderpipeline.kafka.producer.OrderEventOutbox;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderServiceTest {
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private OrderCache orderCache;
+    
+    @Mock
+    private OrderEventOutbox eventOutbox;
+    
+    @Mock
+    private IdGenerator idGenerator;
+    
+    @Mock
+    private AdmissionControl admissionControl;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @InjectMocks
+    private BulkOrderService bulkOrderService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkOrderService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(bulkOrderService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(bulkOrderService, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(bulkOrderService, "commitIntervalMs", 60_000L);
+    }
+    
+    @Test
+    void testPlaceOrders_ChargesEachOrderAfterTheFirstAndStopsWhenSaturated() throws Exception {
+        // Given
+        when(admissionControl.admitOrder())
+            .thenReturn(AdmissionControl.Decision.ADMITTED)
+            .thenReturn(new AdmissionControl.Decision(AdmissionControl.Result.OVERLOADED, 3));
+        String body = "{\"orderId\":\"ORD-1\",\"customerId\":\"CUST-001\"}\n"
+            + "{\"orderId\":\"ORD-2\",\"customerId\":\"CUST-001\"}\n"
+            + "{\"orderId\":\"ORD-3\",\"customerId\":\"CUST-001\"}\n"
+            + "{\"orderId\":\"ORD-4\",\"customerId\":\"CUST-001\"}\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        bulkOrderService.placeOrders(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        
+        // Then
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).get("accepted").asBoolean());
+        assertTrue(results.get(1).get("accepted").asBoolean());
+        assertFalse(results.get(2).get("accepted").asBoolean());
+        assertEquals(2, results.get(2).get("index").asInt());
+        assertTrue(results.get(2).get("error").asText().contains("retry in 3s"));
+        verify(admissionControl, times(2)).admitOrder();
+        verify(transactionTemplate).executeWithoutResult(any());
+    }
+}
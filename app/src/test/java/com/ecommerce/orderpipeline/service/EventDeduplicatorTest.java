@@ -0,0 +1,110 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.ProcessedEventId;
+import com.ecommerce.orderpipeline.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventDeduplicatorTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+    
+    @InjectMocks
+    private EventDeduplicator deduplicator;
+    
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ReflectionTestUtils.setField(deduplicator, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(deduplicator, "enabled", true);
+        ReflectionTestUtils.setField(deduplicator, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(deduplicator, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(deduplicator, "lruSize", 100L);
+        ReflectionTestUtils.setField(deduplicator, "retentionMs", 60_000L);
+        deduplicator.init();
+        
+        // The initial reload runs in the background against the (empty) mocked table
+        for (int i = 0; i < 100 && !(Boolean) ReflectionTestUtils.getField(deduplicator, "warm"); i++) {
+            Thread.sleep(10);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        deduplicator.shutdown();
+    }
+    
+    @Test
+    void testIsProcessed_UnseenKeySkipsDatabase() {
+        // When
+        boolean processed = deduplicator.isProcessed("inventory", "ORDER-1");
+        
+        // Then
+        assertFalse(processed);
+        verifyNoInteractions(processedEventRepository);
+    }
+    
+    @Test
+    void testIsProcessed_MarkedKeyIsDuplicate() {
+        // Given
+        deduplicator.markProcessed("inventory", List.of("ORDER-1"));
+        
+        // When & Then
+        assertTrue(deduplicator.isProcessed("inventory", "ORDER-1"));
+        assertFalse(deduplicator.isProcessed("payments", "ORDER-1"));
+        verifyNoInteractions(processedEventRepository);
+    }
+    
+    @Test
+    void testIsProcessed_KeyInSealedGenerationStillFound() {
+        // Given
+        deduplicator.markProcessed("payments", List.of("ORDER-0"));
+        for (int i = 1; i <= 2500; i++) {
+            deduplicator.markProcessed("inventory", List.of("ORDER-" + i));
+        }
+        when(processedEventRepository.existsById(new ProcessedEventId("payments", "ORDER-0"))).thenReturn(true);
+        
+        // When & Then
+        // Two generations were sealed since and the key left the LRU; only the filter can send it to the table
+        assertTrue(deduplicator.isProcessed("payments", "ORDER-0"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMarkProcessed_KeyTakenElsewhereIsCheckedInDatabase() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenThrow(new DuplicateKeyException("processed_events"));
+        when(processedEventRepository.existsById(new ProcessedEventId("inventory", "ORDER-1"))).thenReturn(true);
+        
+        // When
+        assertThrows(DuplicateKeyException.class, () -> deduplicator.markProcessed("inventory", List.of("ORDER-1")));
+        
+        // Then
+        assertTrue(deduplicator.isProcessed("inventory", "ORDER-1"));
+        verify(processedEventRepository).existsById(new ProcessedEventId("inventory", "ORDER-1"));
+    }
+}
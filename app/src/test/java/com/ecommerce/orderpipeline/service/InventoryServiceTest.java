@@ -0,0 +1,121 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.dto.ReservationResult;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+    
+    @Mock
+    private InventoryRepository inventoryRepository;
+    
+    @Mock
+    private ShardedStockService shardedStockService;
+    
+    @Mock
+    private EventDeduplicator eventDeduplicator;
+    
+    @InjectMocks
+    private InventoryService inventoryService;
+    
+    @Test
+    void testReserveInventory_BulkIsAllOrNothingPerOrder() {
+        // Given
+        ProductInventory headphones = createInventory("prod-1", 5);
+        ProductInventory speakers = createInventory("prod-2", 1);
+        when(inventoryRepository.findAllByProductIdForUpdate(anyCollection()))
+            .thenReturn(List.of(headphones, speakers));
+        
+        Order first = createOrder("ORDER-1", new OrderItem("prod-1", "Headphones", 2, 10.0));
+        Order second = createOrder("ORDER-2",
+            new OrderItem("prod-1", "Headphones", 2, 10.0),
+            new OrderItem("prod-2", "Speakers", 3, 20.0));
+        
+        // When
+        List<ReservationResult> results = inventoryService.reserveInventory(List.of(first, second));
+        
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(3, headphones.getAvailableQuantity());
+        assertEquals(2, headphones.getReservedQuantity());
+        assertEquals(1, speakers.getAvailableQuantity());
+        verify(inventoryRepository, times(1)).findAllByProductIdForUpdate(anyCollection());
+    }
+    
+    @Test
+    void testReserveInventory_UnknownProduct() {
+        // Given
+        when(inventoryRepository.findAllByProductIdForUpdate(anyCollection())).thenReturn(List.of());
+        Order order = createOrder("ORDER-1", new OrderItem("prod-404", "Missing", 1, 10.0));
+        
+        // When & Then
+        assertThrows(RuntimeException.class, () -> inventoryService.reserveInventory(order));
+    }
+    
+    @Test
+    void testReserveInventory_SkipsOrdersAlreadyReserved() {
+        // Given
+        ProductInventory headphones = createInventory("prod-1", 5);
+        when(eventDeduplicator.isProcessed("inventory", "ORDER-1")).thenReturn(true);
+        when(inventoryRepository.findAllByProductIdForUpdate(anyCollection()))
+            .thenReturn(List.of(headphones));
+        
+        Order redelivered = createOrder("ORDER-1", new OrderItem("prod-1", "Headphones", 2, 10.0));
+        Order fresh = createOrder("ORDER-2", new OrderItem("prod-1", "Headphones", 1, 10.0));
+        
+        // When
+        List<ReservationResult> results = inventoryService.reserveInventory(List.of(redelivered, fresh));
+        
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(4, headphones.getAvailableQuantity());
+        assertEquals(1, headphones.getReservedQuantity());
+        verify(eventDeduplicator).markProcessed("inventory", List.of("ORDER-2"));
+    }
+    
+    @Test
+    void testReleaseInventory_Bulk() {
+        // Given
+        ProductInventory headphones = createInventory("prod-1", 3);
+        headphones.setReservedQuantity(2);
+        when(inventoryRepository.findAllByProductIdForUpdate(anyCollection()))
+            .thenReturn(List.of(headphones));
+        
+        // When
+        inventoryService.releaseInventory(List.of(
+            createOrder("ORDER-1", new OrderItem("prod-1", "Headphones", 2, 10.0))));
+        
+        // Then
+        assertEquals(5, headphones.getAvailableQuantity());
+        assertEquals(0, headphones.getReservedQuantity());
+    }
+    
+    private ProductInventory createInventory(String productId, int available) {
+        return new ProductInventory(productId, productId, available, 0, 0, LocalDateTime.now());
+    }
+    
+    private Order createOrder(String orderId, OrderItem... items) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("CUST-001");
+        order.setItems(List.of(items));
+        return order;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderExportServiceTest {
+    
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+    
+    private JdbcTemplate jdbcTemplate;
+    private OrderExportService exportService;
+    
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (order_id VARCHAR(64) PRIMARY KEY, customer_id VARCHAR(64), "
+            + "customer_email VARCHAR(255), status VARCHAR(32), total_amount DOUBLE, shipping_address VARCHAR(255), "
+            + "created_at TIMESTAMP, updated_at TIMESTAMP, failure_reason VARCHAR(255), retry_count INT, version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE order_items (order_order_id VARCHAR(64), line_number INT, "
+            + "product_id VARCHAR(64), product_name VARCHAR(255), quantity INT, price DOUBLE)");
+        insertOrder("ORDER-1", OrderStatus.CONFIRMED, FROM.plusDays(1));
+        insertItem("ORDER-1", 0, "PROD-001", "Widget, large", 2, 10.0);
+        insertItem("ORDER-1", 1, "PROD-002", "Gadget", 1, 5.0);
+        insertOrder("ORDER-2", OrderStatus.CANCELLED, FROM.plusDays(2));
+        insertOrder("ORDER-3", OrderStatus.PLACED, FROM.plusDays(3));
+        insertOrder("ORDER-4", OrderStatus.CONFIRMED, TO.plusDays(1));
+        
+        exportService = new OrderExportService();
+        ReflectionTestUtils.setField(exportService, "dataSource", dataSource);
+        ReflectionTestUtils.setField(exportService, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(exportService, "objectMapper",
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        ReflectionTestUtils.setField(exportService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(exportService, "fetchSize", 2);
+        ReflectionTestUtils.setField(exportService, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(exportService, "archiveMinAgeMs", 86_400_000L);
+        exportService.init();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+    
+    @Test
+    void testExport_NdjsonGroupsItemsPerOrder() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        long exported = exportService.export(List.of(), FROM, TO, OrderExportService.Format.NDJSON, out);
+        
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("ORDER-1", first.get("orderId").asText());
+        assertEquals(2, first.get("items").size());
+        assertEquals("PROD-002", first.get("items").get(1).get("productId").asText());
+        assertEquals(0, new ObjectMapper().readTree(lines[1]).get("items").size());
+    }
+    
+    @Test
+    void testExport_CsvFiltersByStatusAndQuotesFields() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        long exported = exportService.export(List.of(OrderStatus.CONFIRMED, OrderStatus.CANCELLED),
+            FROM, TO, OrderExportService.Format.CSV, out);
+        
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("order_id,customer_id,"));
+        assertTrue(lines[1].startsWith("ORDER-1,CUST-001,"));
+        assertTrue(lines[1].endsWith(",PROD-001,\"Widget, large\",2,10.0"));
+        assertTrue(lines[2].endsWith(",PROD-002,Gadget,1,5.0"));
+        assertTrue(lines[3].startsWith("ORDER-2,") && lines[3].endsWith(",,,,"));
+    }
+    
+    private void insertOrder(String orderId, OrderStatus status, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO orders VALUES (?, 'CUST-001', 'customer@example.com', ?, 25.0, "
+            + "'123 Main St', ?, ?, NULL, 0, 1)", orderId, status.name(), createdAt, createdAt);
+    }
+    
+    private void insertItem(String orderId, int line, String productId, String name, int quantity, double price) {
+        jdbcTemplate.update("INSERT INTO order_items VALUES (?, ?, ?, ?, ?, ?)",
+            orderId, line, productId, name, quantity, price);
+    }
+    
+    @Test
+    void testTryAcquire_LimitsConcurrentExports() {
+        // Given
+        assertTrue(exportService.tryAcquire());
+        assertTrue(exportService.tryAcquire());
+        
+        // When
+        boolean third = exportService.tryAcquire();
+        exportService.release();
+        
+        // Then
+        assertFalse(third);
+        assertTrue(exportService.tryAcquire());
+    }
+    
+    @Test
+    void testEarliestFrom_BoundedByArchiveAgeOnlyWhenArchiving() {
+        // Given
+        assertNull(exportService.earliestFrom());
+        ReflectionTestUtils.setField(exportService, "archiveEnabled", true);
+        
+        // When
+        LocalDateTime earliest = exportService.earliestFrom();
+        
+        // Then
+        LocalDateTime dayAgo = LocalDateTime.now().minusDays(1);
+        assertTrue(earliest.isAfter(dayAgo.minusMinutes(1)) && earliest.isBefore(dayAgo.plusMinutes(1)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.archive.OrderArchive;
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.dto.OrderStatusView;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusReadModelTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private OrderArchive orderArchive;
+    
+    @InjectMocks
+    private OrderStatusReadModel readModel;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(readModel, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(readModel, "maxSize", 100L);
+        ReflectionTestUtils.setField(readModel, "expireAfterWriteMs", 60000L);
+        ReflectionTestUtils.setField(readModel, "negativeTtlMs", 60000L);
+        readModel.init();
+    }
+    
+    @Test
+    void testApply_LaterSagaStatusWinsRegardlessOfArrivalOrder() {
+        // Given
+        readModel.apply(createEvent("ORDER-1", OrderStatus.INVENTORY_RESERVED, 1L));
+        
+        // When
+        readModel.apply(createEvent("ORDER-1", OrderStatus.VALIDATED, 1L));
+        
+        // Then
+        assertEquals(OrderStatus.INVENTORY_RESERVED, readModel.get("ORDER-1").get().getStatus());
+        verify(orderRepository, never()).findById(anyString());
+    }
+    
+    @Test
+    void testApply_HigherOrderVersionWinsOverSagaRank() {
+        // Given
+        readModel.apply(createEvent("ORDER-4", OrderStatus.CANCELLED, 2L));
+        
+        // When
+        readModel.apply(createEvent("ORDER-4", OrderStatus.CONFIRMED, 3L));
+        readModel.apply(createEvent("ORDER-4", OrderStatus.PAYMENT_FAILED, 2L));
+        
+        // Then
+        assertEquals(OrderStatus.CONFIRMED, readModel.get("ORDER-4").get().getStatus());
+    }
+    
+    @Test
+    void testApply_TerminalStatusOutranksLaterDeclaredStep() {
+        // Given
+        readModel.apply(createEvent("ORDER-5", OrderStatus.VALIDATION_FAILED, 1L));
+        
+        // When
+        readModel.apply(createEvent("ORDER-5", OrderStatus.INVENTORY_RESERVED, 1L));
+        
+        // Then
+        assertEquals(OrderStatus.VALIDATION_FAILED, readModel.get("ORDER-5").get().getStatus());
+    }
+    
+    @Test
+    void testGet_UnknownOrderIsRememberedUntilItsFirstEvent() {
+        // Given
+        when(orderRepository.findById("ORDER-404")).thenReturn(Optional.empty());
+        when(orderArchive.find("ORDER-404")).thenReturn(Optional.empty());
+        
+        // When
+        readModel.get("ORDER-404");
+        Optional<OrderStatusView> view = readModel.get("ORDER-404");
+        readModel.apply(createEvent("ORDER-404", OrderStatus.PLACED, 0L));
+        
+        // Then
+        assertTrue(view.isEmpty());
+        verify(orderRepository, times(1)).findById("ORDER-404");
+        assertEquals(OrderStatus.PLACED, readModel.get("ORDER-404").get().getStatus());
+    }
+    
+    @Test
+    void testGet_MissLoadsOrderRowOnce() {
+        // Given
+        Order order = new Order();
+        order.setOrderId("ORDER-2");
+        order.setStatus(OrderStatus.PLACED);
+        order.setVersion(0L);
+        when(orderRepository.findById("ORDER-2")).thenReturn(Optional.of(order));
+        
+        // When
+        readModel.get("ORDER-2");
+        Optional<OrderStatusView> view = readModel.get("ORDER-2");
+        
+        // Then
+        assertEquals(OrderStatus.PLACED, view.get().getStatus());
+        verify(orderRepository, times(1)).findById("ORDER-2");
+    }
+    
+    @Test
+    void testApply_NotifiesWatchersOnChange() {
+        // Given
+        AtomicInteger notified = new AtomicInteger();
+        readModel.apply(createEvent("ORDER-3", OrderStatus.VALIDATED, 1L));
+        readModel.watch("ORDER-3", notified::incrementAndGet);
+        
+        // When
+        readModel.apply(createEvent("ORDER-3", OrderStatus.VALIDATED, 1L));
+        readModel.apply(createEvent("ORDER-3", OrderStatus.CONFIRMED, 2L));
+        
+        // Then
+        assertEquals(1, notified.get());
+    }
+    
+    private OrderEvent createEvent(String orderId, OrderStatus status, Long version) {
+        OrderEvent event = new OrderEvent(orderId, null, status, "test", "Test");
+        event.setOrderVersion(version);
+        return event;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import com.ecommerce.orderpipeline.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "app.orders.status-writer.flush-interval-ms=600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(OrderStatusWriter.class)
+class OrderStatusWriterIntegrationTest {
+    
+    @Autowired
+    private OrderStatusWriter statusWriter;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockBean
+    private OrderCache orderCache;
+    
+    @MockBean
+    private CallbackExecutor callbackExecutor;
+    
+    @BeforeEach
+    void setUp() {
+        when(callbackExecutor.get()).thenReturn(Runnable::run);
+    }
+    
+    @Test
+    void testWrite_AdvancesStatus() {
+        // Given
+        Order order = orderRepository.saveAndFlush(createOrder("ORDER-1", OrderStatus.PLACED));
+        order.setStatus(OrderStatus.VALIDATED);
+        
+        // When
+        statusWriter.write(order);
+        statusWriter.flush();
+        
+        // Then
+        assertEquals("VALIDATED", storedStatus("ORDER-1"));
+        verify(orderCache).put(order);
+    }
+    
+    @Test
+    void testWrite_StaleStatusLeavesRowAlone() {
+        // Given
+        Order order = orderRepository.saveAndFlush(createOrder("ORDER-1", OrderStatus.CONFIRMED));
+        Long version = order.getVersion();
+        order.setStatus(OrderStatus.VALIDATED);
+        
+        // When
+        CompletableFuture<Order> write = statusWriter.write(order);
+        statusWriter.flush();
+        
+        // Then: the order has moved on, so the write is not a failure
+        assertSame(order, write.join());
+        assertEquals("CONFIRMED", storedStatus("ORDER-1"));
+        assertEquals(version, jdbcTemplate.queryForObject(
+            "SELECT version FROM orders WHERE order_id = 'ORDER-1'", Long.class));
+        verify(orderCache, never()).put(any());
+    }
+    
+    @Test
+    void testWrite_TerminalStatusIsFinal() {
+        // Given
+        Order order = orderRepository.saveAndFlush(createOrder("ORDER-1", OrderStatus.CANCELLED));
+        order.setStatus(OrderStatus.CONFIRMED);
+        
+        // When
+        statusWriter.write(order);
+        statusWriter.flush();
+        
+        // Then
+        assertEquals("CANCELLED", storedStatus("ORDER-1"));
+    }
+    
+    private String storedStatus(String orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE order_id = ?", String.class, orderId);
+    }
+    
+    private Order createOrder(String orderId, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("CUST-001");
+        order.setStatus(status);
+        order.setTotalAmount(19.99);
+        order.setItems(new ArrayList<>(List.of(new OrderItem("PROD-A", "Product PROD-A", 1, 19.99))));
+        return order;
+    }
+}
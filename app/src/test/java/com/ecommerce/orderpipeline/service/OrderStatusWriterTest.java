@@ -0,0 +1,140 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusWriterTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private OrderCache orderCache;
+    
+    @Mock
+    private CallbackExecutor callbackExecutor;
+    
+    @InjectMocks
+    private OrderStatusWriter statusWriter;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statusWriter, "batchSize", 100);
+        lenient().when(callbackExecutor.get()).thenReturn(Runnable::run);
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CollapsesUpdatesToSameOrder() {
+        // Given
+        mockRowCounts(1, 1);
+        CompletableFuture<Order> validated = statusWriter.write(createOrder("ORDER-1", OrderStatus.VALIDATED));
+        CompletableFuture<Order> confirmed = statusWriter.write(createOrder("ORDER-1", OrderStatus.CONFIRMED));
+        CompletableFuture<Order> other = statusWriter.write(createOrder("ORDER-2", OrderStatus.VALIDATED));
+        
+        // When
+        statusWriter.flush();
+        
+        // Then
+        ArgumentCaptor<Collection<?>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), eq(2),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        assertEquals(OrderStatus.VALIDATED, validated.join().getStatus());
+        assertEquals(OrderStatus.CONFIRMED, confirmed.join().getStatus());
+        assertEquals(2L, confirmed.join().getVersion());
+        assertEquals(2L, validated.join().getVersion());
+        assertTrue(other.isDone());
+        verify(orderCache, times(2)).put(any(Order.class));
+    }
+    
+    @Test
+    void testFlush_MissingOrderFailsOnlyItsWrite() {
+        // Given
+        mockRowCounts(0, 1);
+        CompletableFuture<Order> missing = statusWriter.write(createOrder("ORDER-404", OrderStatus.VALIDATED));
+        CompletableFuture<Order> found = statusWriter.write(createOrder("ORDER-1", OrderStatus.VALIDATED));
+        
+        // When
+        statusWriter.flush();
+        
+        // Then
+        assertThrows(CompletionException.class, missing::join);
+        assertNotNull(found.join());
+    }
+    
+    @Test
+    void testFlush_StaleChangeDoesNotUndoNewerOneInSameBatch() {
+        // Given
+        mockRowCounts(1);
+        CompletableFuture<Order> confirmed = statusWriter.write(createOrder("ORDER-1", OrderStatus.CONFIRMED));
+        CompletableFuture<Order> replayed = statusWriter.write(createOrder("ORDER-1", OrderStatus.VALIDATED));
+        
+        // When
+        statusWriter.flush();
+        
+        // Then
+        ArgumentCaptor<Order> cached = ArgumentCaptor.forClass(Order.class);
+        verify(orderCache).put(cached.capture());
+        assertEquals(OrderStatus.CONFIRMED, cached.getValue().getStatus());
+        assertTrue(confirmed.isDone());
+        assertTrue(replayed.isDone());
+    }
+    
+    @Test
+    void testFlush_SupersededWriteCompletesWithoutCaching() {
+        // Given
+        mockRowCounts(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("ORDER-1"))).thenReturn(List.of("ORDER-1"));
+        CompletableFuture<Order> replayed = statusWriter.write(createOrder("ORDER-1", OrderStatus.VALIDATED));
+        
+        // When
+        statusWriter.flush();
+        
+        // Then
+        assertEquals(1L, replayed.join().getVersion());
+        verify(orderCache, never()).put(any());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void mockRowCounts(int... rows) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][] {rows});
+    }
+    
+    private Order createOrder(String orderId, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStatus(status);
+        order.setVersion(1L);
+        return order;
+    }
+}
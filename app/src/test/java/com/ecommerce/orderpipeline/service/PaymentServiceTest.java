@@ -0,0 +1,132 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+    
+    @Mock
+    private PaymentGateway paymentGateway;
+    
+    @Mock
+    private EventDeduplicator eventDeduplicator;
+    
+    @Mock
+    private CallbackExecutor callbackExecutor;
+    
+    @InjectMocks
+    private PaymentService paymentService;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(paymentService, "paymentTimeout", 50L);
+        ReflectionTestUtils.setField(paymentService, "maxConcurrentCalls", 1);
+        paymentService.init();
+        lenient().when(callbackExecutor.get()).thenReturn(Runnable::run);
+    }
+    
+    @Test
+    void testProcessPayment_Approved() {
+        // Given
+        when(paymentGateway.authorize(any(Order.class))).thenReturn(CompletableFuture.completedFuture(true));
+        
+        // When
+        boolean result = paymentService.processPayment(createOrder()).join();
+        
+        // Then
+        assertTrue(result);
+    }
+    
+    @Test
+    void testProcessPayment_Declined() {
+        // Given
+        when(paymentGateway.authorize(any(Order.class))).thenReturn(CompletableFuture.completedFuture(false));
+        
+        // When
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> paymentService.processPayment(createOrder()).join());
+        
+        // Then
+        assertEquals("Payment gateway declined the transaction", error.getCause().getMessage());
+    }
+    
+    @Test
+    void testProcessPayment_TimeoutFreesBulkheadSlot() {
+        // Given
+        when(paymentGateway.authorize(any(Order.class)))
+            .thenReturn(new CompletableFuture<>())
+            .thenReturn(CompletableFuture.completedFuture(true));
+        
+        // When
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> paymentService.processPayment(createOrder()).join());
+        boolean retried = paymentService.processPayment(createOrder()).join();
+        
+        // Then
+        assertTrue(error.getCause().getMessage().contains("timed out"));
+        assertTrue(retried);
+    }
+    
+    @Test
+    void testProcessPayment_BulkheadFullWaitsForSlot() {
+        // Given
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        when(paymentGateway.authorize(any(Order.class)))
+            .thenReturn(first)
+            .thenReturn(CompletableFuture.completedFuture(true));
+        ReflectionTestUtils.setField(paymentService, "paymentTimeout", 10_000L);
+        ReflectionTestUtils.setField(paymentService, "maxWaitMs", 5_000L);
+        paymentService.processPayment(createOrder());
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> first.complete(true));
+        
+        // When
+        boolean result = paymentService.processPayment(createOrder()).join();
+        
+        // Then
+        assertTrue(result);
+        verify(paymentGateway, times(2)).authorize(any(Order.class));
+    }
+    
+    @Test
+    void testProcessPayment_BulkheadStillFullIsRejectedNotFailed() {
+        // Given
+        when(paymentGateway.authorize(any(Order.class))).thenReturn(new CompletableFuture<>());
+        ReflectionTestUtils.setField(paymentService, "paymentTimeout", 10_000L);
+        ReflectionTestUtils.setField(paymentService, "maxWaitMs", 50L);
+        paymentService.processPayment(createOrder());
+        
+        // When
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> paymentService.processPayment(createOrder()).join());
+        
+        // Then
+        assertTrue(error.getCause() instanceof RejectedExecutionException);
+        verify(paymentGateway, times(1)).authorize(any(Order.class));
+    }
+    
+    private Order createOrder() {
+        Order order = new Order();
+        order.setOrderId("ORDER-1");
+        order.setCustomerId("CUST-001");
+        order.setTotalAmount(100.0);
+        return order;
+    }
+}
@@ -0,0 +1,226 @@
+package com.ecommerce.orderpipeline.service;
+
+import com.ecommerce.orderpipeline.model.InventoryShard;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import com.ecommerce.orderpipeline.repository.InventoryShardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({InventoryService.class, ShardedStockService.class, EventDeduplicator.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedStockConcurrencyTest {
+    
+    private static final String HOT_PRODUCT = "hot-1";
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private InventoryShardRepository shardRepository;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @AfterEach
+    void cleanUp() {
+        shardRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+    
+    @Test
+    void testShardedReservations_NeverOversell() throws Exception {
+        // Given
+        int stock = 200;
+        inventoryRepository.save(new ProductInventory(HOT_PRODUCT, "Flash Sale Item", stock, 0, 0, null));
+        shardedStockService.enableSharding(HOT_PRODUCT, 8);
+        
+        int threads = 16;
+        int attemptsPerThread = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger reservedUnits = new AtomicInteger();
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> workers = new ArrayList<>();
+        
+        // When
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                    try {
+                        inventoryService.reserveInventory(createOrder(quantity));
+                        reservedUnits.addAndGet(quantity);
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> rebalancer = executor.submit(() -> {
+            start.await();
+            while (running.get()) {
+                shardedStockService.rebalance(HOT_PRODUCT);
+                Thread.sleep(5);
+            }
+            return null;
+        });
+        
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        rebalancer.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        // Then
+        long available = inventoryService.getAvailableQuantity(HOT_PRODUCT);
+        long reserved = shardedStockService.getReservedQuantity(HOT_PRODUCT);
+        for (RuntimeException failure : failures) {
+            assertTrue(failure.getMessage().startsWith("Insufficient inventory"), failure.toString());
+        }
+        assertFalse(failures.isEmpty());
+        assertTrue(available < 3);
+        assertEquals(stock, available + reserved);
+        assertEquals(reservedUnits.get(), reserved);
+        for (InventoryShard shard : shardRepository.findAll()) {
+            assertTrue(shard.getAvailableQuantity() >= 0);
+            assertTrue(shard.getReservedQuantity() >= 0);
+        }
+    }
+    
+    @Test
+    void testConcurrentReservations_TakeDifferentBuckets() throws Exception {
+        // Given
+        inventoryRepository.save(new ProductInventory(HOT_PRODUCT, "Flash Sale Item", 40, 0, 0, null));
+        shardedStockService.enableSharding(HOT_PRODUCT, 4);
+        CountDownLatch firstHolding = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        // When
+        Future<Boolean> secondFinishedWhileFirstHeld = executor.submit(() -> transactionTemplate.execute(status -> {
+            assertTrue(shardedStockService.reserve(HOT_PRODUCT, 1));
+            firstHolding.countDown();
+            try {
+                // Keeps the first reservation's bucket locked until the second one has finished
+                return secondDone.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertTrue(firstHolding.await(5, TimeUnit.SECONDS));
+        assertTrue(shardedStockService.reserve(HOT_PRODUCT, 1));
+        secondDone.countDown();
+        
+        // Then
+        assertTrue(secondFinishedWhileFirstHeld.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        List<Integer> used = new ArrayList<>();
+        for (InventoryShard shard : shardRepository.findAll()) {
+            if (shard.getReservedQuantity() > 0) {
+                assertEquals(1, shard.getReservedQuantity());
+                used.add(shard.getShardIndex());
+            }
+        }
+        assertEquals(2, used.size());
+    }
+    
+    @Test
+    void testRelease_ReturnsStockToBucketsHoldingIt() {
+        // Given
+        inventoryRepository.save(new ProductInventory(HOT_PRODUCT, "Flash Sale Item", 40, 0, 0, null));
+        shardedStockService.enableSharding(HOT_PRODUCT, 4);
+        Order first = createOrder(3);
+        Order second = createOrder(4);
+        inventoryService.reserveInventory(first);
+        inventoryService.reserveInventory(second);
+        
+        // When
+        inventoryService.releaseInventory(first);
+        inventoryService.releaseInventory(second);
+        
+        // Then
+        assertEquals(40, inventoryService.getAvailableQuantity(HOT_PRODUCT));
+        assertEquals(0, shardedStockService.getReservedQuantity(HOT_PRODUCT));
+        for (InventoryShard shard : shardRepository.findAll()) {
+            assertEquals(0, shard.getReservedQuantity());
+            assertEquals(10, shard.getAvailableQuantity());
+        }
+    }
+    
+    @Test
+    void testDisableSharding_FoldsBucketsBack() {
+        // Given
+        inventoryRepository.save(new ProductInventory(HOT_PRODUCT, "Flash Sale Item", 50, 0, 0, null));
+        shardedStockService.enableSharding(HOT_PRODUCT, 4);
+        inventoryService.reserveInventory(createOrder(5));
+        
+        // When
+        shardedStockService.disableSharding(HOT_PRODUCT);
+        
+        // Then
+        ProductInventory inventory = inventoryRepository.findByProductId(HOT_PRODUCT).orElseThrow();
+        assertFalse(inventory.isSharded());
+        assertEquals(45, inventory.getAvailableQuantity());
+        assertEquals(5, inventory.getReservedQuantity());
+        assertTrue(shardRepository.findAll().isEmpty());
+    }
+    
+    private Order createOrder(int quantity) {
+        Order order = new Order();
+        order.setOrderId(UUID.randomUUID().toString());
+        order.setCustomerId("CUST-001");
+        order.setItems(List.of(new OrderItem(HOT_PRODUCT, "Flash Sale Item", quantity, 10.0)));
+        return order;
+    }
+}
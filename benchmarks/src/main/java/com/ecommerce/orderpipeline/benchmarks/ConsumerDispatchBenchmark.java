@@ -0,0 +1,70 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.config.ExecutionThreads;
+import com.ecommerce.orderpipeline.kafka.consumer.KeyOrderedDispatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handing one poll's worth of records to stage handlers through {@link KeyOrderedDispatcher},
+ * inline on the consumer thread or fanned out to key-ordered lanes. {@code work} stands in for
+ * the handler's CPU time; the score is per record, including waiting for the last one to finish.
+ * Run with {@code -p virtualThreads=true} on Java 21+ to put the lanes on virtual threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConsumerDispatchBenchmark {
+    
+    private static final int RECORDS_PER_POLL = 500;
+    private static final String TOPIC = "orders.validated";
+    
+    @Param({"0", "4"})
+    private int lanes;
+    
+    @Param({"0", "2000"})
+    private int work;
+    
+    @Param({"false"})
+    private boolean virtualThreads;
+    
+    private KeyOrderedDispatcher dispatcher;
+    private final String[] keys = new String[RECORDS_PER_POLL];
+    
+    @Setup
+    public void setUp() {
+        dispatcher = new KeyOrderedDispatcher();
+        Fixtures.inject(dispatcher, "executionThreads", new ExecutionThreads(virtualThreads));
+        Fixtures.inject(dispatcher, "enabled", lanes > 0);
+        Fixtures.inject(dispatcher, "lanes", lanes);
+        Fixtures.inject(dispatcher, "maxInFlightPerPartition", 64);
+        dispatcher.init();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "ORDER-" + i;
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_POLL)
+    public void dispatchPoll() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(RECORDS_PER_POLL);
+        for (String key : keys) {
+            dispatcher.dispatch(TOPIC, 0, key, () -> {
+                Blackhole.consumeCPU(work);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
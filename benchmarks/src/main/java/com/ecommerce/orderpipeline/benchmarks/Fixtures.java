@@ -0,0 +1,90 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderItem;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test data and wiring shared by the benchmarks. Services are built by hand and their
+ * {@code @Autowired} / {@code @Value} fields set reflectively, so no Spring context is started.
+ */
+final class Fixtures {
+    
+    private Fixtures() {
+    }
+    
+    static Order order(String orderId, int itemCount) {
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        double total = 0;
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem("prod-" + i, "Product " + i, 1 + i % 3, 19.99 + i);
+            items.add(item);
+            total += item.getQuantity() * item.getPrice();
+        }
+        
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId("cust-123");
+        order.setCustomerEmail("john@example.com");
+        order.setStatus(OrderStatus.PLACED);
+        order.setTotalAmount(total);
+        order.setShippingAddress("123 Main St, Springfield");
+        order.setItems(items);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(order.getCreatedAt());
+        order.setRetryCount(0);
+        order.setVersion(0L);
+        return order;
+    }
+    
+    static OrderEvent event(int itemCount) {
+        return new OrderEvent("ORDER-12345", order("ORDER-12345", itemCount), OrderStatus.VALIDATED,
+            "Order validation successful", "OrderValidator");
+    }
+    
+    /**
+     * Orders over {@code skuCount} products where {@code hotShare} of all items hit the first
+     * {@code hotSkus} products, as during a flash sale.
+     */
+    static List<Order> orders(int count, int itemsPerOrder, int skuCount, int hotSkus, double hotShare, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                int sku = random.nextDouble() < hotShare
+                    ? random.nextInt(hotSkus)
+                    : hotSkus + random.nextInt(skuCount - hotSkus);
+                items.add(new OrderItem("prod-" + sku, "Product " + sku, 1 + random.nextInt(2), 9.99));
+            }
+            Order order = order("ORDER-" + i, 0);
+            order.setItems(items);
+            orders.add(order);
+        }
+        return orders;
+    }
+    
+    static void inject(Object target, String fieldName, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Can't set " + fieldName + " on " + target.getClass(), e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass());
+    }
+}
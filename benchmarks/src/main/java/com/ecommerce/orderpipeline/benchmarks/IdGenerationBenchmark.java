@@ -0,0 +1,37 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.id.IdGenerator;
+import com.ecommerce.orderpipeline.id.SnowflakeIdGenerator;
+import com.ecommerce.orderpipeline.id.UuidIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order and event ID generation with one generator shared by all threads, as in the
+ * application. Run with {@code -t} to vary contention, e.g. {@code -t 1} against {@code -t 8}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+    
+    @Param({"snowflake", "uuid"})
+    private String generator;
+    
+    private IdGenerator idGenerator;
+    
+    @Setup
+    public void setUp() {
+        idGenerator = "uuid".equals(generator) ? new UuidIdGenerator() : new SnowflakeIdGenerator(1);
+    }
+    
+    @Benchmark
+    public String nextId() {
+        return idGenerator.nextId();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.dto.ReservationResult;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.ProductInventory;
+import com.ecommerce.orderpipeline.repository.InventoryRepository;
+import com.ecommerce.orderpipeline.service.EventDeduplicator;
+import com.ecommerce.orderpipeline.service.InventoryService;
+import com.ecommerce.orderpipeline.service.ShardedStockService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryService's reservation logic against an in-memory repository: grouping items per
+ * product, the all-or-nothing check and the in-memory decrements. Database round trips are
+ * left out, so this is the CPU cost a stage adds on top of its single locking query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InventoryReservationBenchmark {
+    
+    private static final int SKUS = 1000;
+    private static final int HOT_SKUS = 10;
+    private static final int STOCK = 1_000_000_000;
+    
+    @Param({"1", "100"})
+    private int ordersPerCall;
+    
+    @Param({"0.0", "0.8"})
+    private double hotShare;
+    
+    private InventoryService inventoryService;
+    private final Map<String, ProductInventory> inventory = new HashMap<>();
+    private final List<List<Order>> batches = new ArrayList<>();
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        InventoryRepository repository = (InventoryRepository) Proxy.newProxyInstance(
+            InventoryRepository.class.getClassLoader(),
+            new Class<?>[] {InventoryRepository.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findAllByProductIdForUpdate":
+                    case "findAllById":
+                        List<ProductInventory> rows = new ArrayList<>();
+                        for (Object productId : (Iterable<?>) args[0]) {
+                            ProductInventory row = inventory.get(productId);
+                            if (row != null) {
+                                rows.add(row);
+                            }
+                        }
+                        return rows;
+                    case "findByProductId":
+                    case "findById":
+                        return Optional.ofNullable(inventory.get(args[0]));
+                    case "findAll":
+                        return new ArrayList<>(inventory.values());
+                    case "findShardCounts":
+                        return new ArrayList<Object[]>();
+                    case "save":
+                        ProductInventory saved = (ProductInventory) args[0];
+                        inventory.put(saved.getProductId(), saved);
+                        return saved;
+                    case "saveAll":
+                        List<ProductInventory> all = new ArrayList<>();
+                        for (Object row : (Iterable<?>) args[0]) {
+                            ProductInventory entity = (ProductInventory) row;
+                            inventory.put(entity.getProductId(), entity);
+                            all.add(entity);
+                        }
+                        return all;
+                    case "count":
+                        return (long) inventory.size();
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "InMemoryInventoryRepository";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        
+        inventoryService = new InventoryService();
+        Fixtures.inject(inventoryService, "inventoryRepository", repository);
+        Fixtures.inject(inventoryService, "shardedStockService", new ShardedStockService());
+        // Not initialised, so it is disabled and every order counts as new
+        Fixtures.inject(inventoryService, "eventDeduplicator", new EventDeduplicator());
+        
+        List<Order> orders = Fixtures.orders(ordersPerCall * 64, 3, SKUS, HOT_SKUS, hotShare, 42);
+        for (int i = 0; i < orders.size(); i += ordersPerCall) {
+            batches.add(orders.subList(i, i + ordersPerCall));
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void restock() {
+        for (int i = 0; i < SKUS; i++) {
+            String productId = "prod-" + i;
+            inventory.put(productId, new ProductInventory(productId, productId, STOCK, 0, 0, LocalDateTime.now()));
+        }
+    }
+    
+    @Benchmark
+    public List<ReservationResult> reserveInventory() {
+        List<Order> batch = batches.get(next);
+        next = (next + 1) % batches.size();
+        return inventoryService.reserveInventory(batch);
+    }
+}
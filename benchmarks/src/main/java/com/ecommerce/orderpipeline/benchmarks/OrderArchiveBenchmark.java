@@ -0,0 +1,88 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.archive.OrderArchive;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The cold tier on local disk. {@code append} is archive throughput: encoding, compressing
+ * and forcing one segment of {@code BATCH} orders, reported per order. {@code find} is a point
+ * lookup of a random archived order across {@code segments} memory-mapped segments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderArchiveBenchmark {
+    
+    private static final int BATCH = 10_000;
+    
+    @Param({"1", "10"})
+    private int segments;
+    
+    private Path directory;
+    private OrderArchive archive;
+    private List<Order> batch;
+    
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-archive-bench");
+        archive = new OrderArchive();
+        Fixtures.inject(archive, "meterRegistry", new SimpleMeterRegistry());
+        Fixtures.inject(archive, "directory", directory.toString());
+        Fixtures.inject(archive, "blockBytes", 65536);
+        archive.init();
+        
+        for (int s = 0; s < segments; s++) {
+            archive.append(orders(s * BATCH));
+        }
+        batch = orders(segments * BATCH);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public Optional<Order> find() {
+        return archive.find(orderId(ThreadLocalRandom.current().nextInt(segments * BATCH)));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long append() throws IOException {
+        return archive.append(batch);
+    }
+    
+    private static List<Order> orders(int from) {
+        List<Order> orders = new ArrayList<>(BATCH);
+        for (int i = from; i < from + BATCH; i++) {
+            Order order = Fixtures.order(orderId(i), 3);
+            order.setStatus(OrderStatus.CONFIRMED);
+            orders.add(order);
+        }
+        return orders;
+    }
+    
+    private static String orderId(int i) {
+        return String.format("ORDER-%08d", i);
+    }
+}
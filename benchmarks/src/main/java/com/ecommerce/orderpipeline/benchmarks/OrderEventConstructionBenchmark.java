@@ -0,0 +1,66 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.id.Ids;
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.model.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building an event for every stage transition, next to the pieces it is made of:
+ * the eventId and the timestamp. {@code randomUuid} and {@code localDateTimeNow} are what events
+ * carried before they switched to time-ordered IDs and epoch millis.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderEventConstructionBenchmark {
+    
+    private Order order;
+    private OrderEvent event;
+    
+    @Setup
+    public void setUp() {
+        order = Fixtures.order("ORDER-12345", 3);
+        event = new OrderEvent(order.getOrderId(), order, OrderStatus.VALIDATED,
+            "Order validation successful", "OrderValidator");
+    }
+    
+    @Benchmark
+    public OrderEvent newEvent() {
+        return new OrderEvent(order.getOrderId(), order, OrderStatus.VALIDATED,
+            "Order validation successful", "OrderValidator");
+    }
+    
+    @Benchmark
+    public OrderEvent withoutOrder() {
+        return event.withoutOrder();
+    }
+    
+    @Benchmark
+    public String nextId() {
+        return Ids.next();
+    }
+    
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+    
+    @Benchmark
+    public LocalDateTime localDateTimeNow() {
+        return LocalDateTime.now();
+    }
+    
+    @Benchmark
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.dto.OrderEvent;
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventDeserializer;
+import com.ecommerce.orderpipeline.kafka.serialization.OrderEventSerializer;
+import com.ecommerce.orderpipeline.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the event payloads on every topic, binary codec against JSON,
+ * for full events (orders.confirmed, DLQ) and slim stage-to-stage events.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderEventSerializationBenchmark {
+    
+    private static final String TOPIC = "orders.validated";
+    
+    @Param({"full", "slim"})
+    private String shape;
+    
+    @Param({"3", "20"})
+    private int items;
+    
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final OrderEventSerializer serializer = new OrderEventSerializer();
+    private final OrderEventDeserializer deserializer = new OrderEventDeserializer();
+    
+    private OrderEvent event;
+    private byte[] binary;
+    private byte[] json;
+    private byte[] orderJson;
+    
+    @Setup
+    public void setUp() throws IOException {
+        OrderEvent fullEvent = Fixtures.event(items);
+        event = "slim".equals(shape) ? fullEvent.withoutOrder() : fullEvent;
+        binary = serializer.serialize(TOPIC, event);
+        json = objectMapper.writeValueAsBytes(event);
+        orderJson = objectMapper.writeValueAsBytes(fullEvent.getOrder());
+    }
+    
+    @Benchmark
+    public byte[] binaryEncode() {
+        return serializer.serialize(TOPIC, event);
+    }
+    
+    @Benchmark
+    public OrderEvent binaryDecode() {
+        return deserializer.deserialize(TOPIC, binary);
+    }
+    
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+    
+    // Goes through the format sniffing in OrderEventDeserializer, as JSON records do during a rollout
+    @Benchmark
+    public OrderEvent jsonDecode() {
+        return deserializer.deserialize(TOPIC, json);
+    }
+    
+    // Request body of POST /api/orders
+    @Benchmark
+    public Order orderJsonDecode() throws IOException {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+}
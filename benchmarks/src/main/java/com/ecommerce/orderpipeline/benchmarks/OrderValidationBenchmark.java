@@ -0,0 +1,51 @@
+package com.ecommerce.orderpipeline.benchmarks;
+
+import com.ecommerce.orderpipeline.model.Order;
+import com.ecommerce.orderpipeline.service.OrderService;
+import com.ecommerce.orderpipeline.service.OrderStatusWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The validation stage's own work, with the status write replaced by an already-completed
+ * future so only the checks and the future chaining are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderValidationBenchmark {
+    
+    @Param({"3", "20"})
+    private int items;
+    
+    private OrderService orderService;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        orderService = new OrderService();
+        Fixtures.inject(orderService, "statusWriter", new OrderStatusWriter() {
+            @Override
+            public CompletableFuture<Order> write(Order order) {
+                return CompletableFuture.completedFuture(order);
+            }
+        });
+        order = Fixtures.order("ORDER-12345", items);
+    }
+    
+    @Benchmark
+    public Order checkOrder() {
+        orderService.checkOrder(order);
+        return order;
+    }
+    
+    @Benchmark
+    public Order validateOrder() {
+        return orderService.validateOrder(order).join();
+    }
+}
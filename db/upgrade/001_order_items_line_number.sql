@@ -0,0 +1,24 @@
+-- Turns order_items from a bag into an indexed, append-only list (PostgreSQL).
+-- One-off upgrade step: the application has no migration tool and does not run this file.
+-- Run it by hand once, before deploying the version that maps Order.items with @OrderColumn;
+-- hibernate ddl-auto would add line_number as a nullable column and leave existing rows without one.
+-- Safe to run after ddl-auto already added the column: only rows without a line_number are numbered.
+
+BEGIN;
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS line_number INTEGER;
+
+-- Existing rows have no stable order, so number them in physical order per order
+UPDATE order_items oi
+SET line_number = numbered.rn - 1
+FROM (
+    SELECT ctid, ROW_NUMBER() OVER (PARTITION BY order_order_id ORDER BY ctid) AS rn
+    FROM order_items
+) numbered
+WHERE oi.ctid = numbered.ctid
+  AND oi.line_number IS NULL;
+
+ALTER TABLE order_items ALTER COLUMN line_number SET NOT NULL;
+ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (order_order_id, line_number);
+
+COMMIT;
@@ -1,9 +0,0 @@
-package com.ecommerce.orderpipeline.repository;
-
-import com.ecommerce.orderpipeline.model.Order;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-@Repository
-public interface OrderRepository extends JpaRepository<Order, String> {
-}
\ No newline at end of file